@@ -0,0 +1,57 @@
+package com.project.app.elevator;
+
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.SecurityType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.SplittableRandom;
+
+/**
+ * Builds elevators of any height for the benchmarks.
+ */
+public final class BenchmarkElevators {
+
+    private BenchmarkElevators() {
+    }
+
+    public static ElevatorImpl build(int numFloors, SecurityType securityType, ArrayList<String> authorizedUsers) {
+        ArrayList<String> floors = new ArrayList<>();
+        for (int i = 0; i < numFloors; i++) {
+            floors.add(String.valueOf(i + 1));
+        }
+        return ElevatorImpl.builder()
+                .floors(floors)
+                .securityType(securityType)
+                .defaultFloor(0)
+                .floorsToVisit(new ArrayList<>(Collections.nCopies(numFloors, FloorDirection.NONE)))
+                .authorizedFloors(new ArrayList<>(Collections.nCopies(numFloors, false)))
+                .authorizedUsers(authorizedUsers)
+                .doorStatus(DoorStatus.CLOSED)
+                .authenticated(false)
+                .direction(0)
+                .currentFloor(0)
+                .build();
+    }
+
+    // Random valid hall calls encoded as floor * 2 + (0 for UP, 1 for DOWN)
+    public static int[] hallCalls(int numFloors, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] calls = new int[count];
+        for (int i = 0; i < count; i++) {
+            int floor = random.nextInt(numFloors);
+            boolean up = floor == 0 || (floor != numFloors - 1 && random.nextBoolean());
+            calls[i] = floor * 2 + (up ? 0 : 1);
+        }
+        return calls;
+    }
+
+    public static int floorOf(int call) {
+        return call >> 1;
+    }
+
+    public static FloorDirection directionOf(int call) {
+        return (call & 1) == 0 ? FloorDirection.UP : FloorDirection.DOWN;
+    }
+}
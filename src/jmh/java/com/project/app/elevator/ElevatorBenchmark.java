@@ -0,0 +1,144 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorRequestTable;
+import com.project.app.util.SecurityType;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler hot paths with logging turned down to WARN, over building height and request density
+ * (share of floors with a pending request).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevatorBenchmark {
+    private static final int CALLS = 4096;
+    // Presses per burst from a floor controller
+    private static final int BURST = 64;
+
+    @Param({"4", "8", "64", "512"})
+    int floors;
+
+    @Param({"0.1", "0.5"})
+    double density;
+
+    private ElevatorImpl elevator;
+    private int[] calls;
+    private int next;
+    // The same hall calls encoded for pressButtons, and the requests they replace
+    private int[] events;
+    private final FloorDirection[] previous = new FloorDirection[BURST];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configurator.setLevel("com.project.app", org.apache.logging.log4j.Level.WARN);
+        elevator = BenchmarkElevators.build(floors, SecurityType.NONE, new ArrayList<>());
+        calls = BenchmarkElevators.hallCalls(floors, CALLS, 1);
+        int target = Math.max(1, (int) (floors * density));
+        for (int i = 0; i < CALLS * 4 && elevator.getFloorsToVisit().countRequests(0, floors - 1) < target; i++) {
+            pressNext();
+        }
+        events = new int[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            events[i] = ButtonEvents.hallCall(BenchmarkElevators.floorOf(calls[i]),
+                    BenchmarkElevators.directionOf(calls[i]));
+        }
+    }
+
+    // Moves the car, then registers one more hall call so the request density stays roughly constant
+    @Benchmark
+    public int moveCurrentFloor() {
+        elevator.moveCurrentFloor();
+        pressNext();
+        return elevator.getCurrentFloor();
+    }
+
+    // Registers a hall call, then restores the floor so the request density stays constant
+    @Benchmark
+    public FloorDirection callButtonPressed() {
+        int call = calls[next++ & (CALLS - 1)];
+        int floor = BenchmarkElevators.floorOf(call);
+        FloorDirection previous = elevator.getFloorsToVisit().get(floor);
+        elevator.callButtonPressed(floor, BenchmarkElevators.directionOf(call));
+        return elevator.getFloorsToVisit().set(floor, previous);
+    }
+
+    // Presses the top floor button by label, then restores the floor so the request density stays constant
+    @Benchmark
+    public FloorDirection interiorButtonByLabel() {
+        FloorDirection previous = elevator.getFloorsToVisit().get(floors - 1);
+        elevator.interiorButtonPressed(elevator.getFloors().get(floors - 1));
+        return elevator.getFloorsToVisit().set(floors - 1, previous);
+    }
+
+    // The same press by button code
+    @Benchmark
+    public FloorDirection interiorButtonByCode() {
+        FloorDirection previous = elevator.getFloorsToVisit().get(floors - 1);
+        elevator.interiorButtonPressed(floors - 1);
+        return elevator.getFloorsToVisit().set(floors - 1, previous);
+    }
+
+    // A burst of hall calls pressed one at a time, then the floors are restored
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public FloorDirection burstOfSinglePresses() {
+        int start = next++ & (CALLS / BURST - 1);
+        FloorRequestTable requests = elevator.getFloorsToVisit();
+        for (int i = 0; i < BURST; i++) {
+            int call = calls[start * BURST + i];
+            previous[i] = requests.get(BenchmarkElevators.floorOf(call));
+            elevator.callButtonPressed(BenchmarkElevators.floorOf(call), BenchmarkElevators.directionOf(call));
+        }
+        return restore(start);
+    }
+
+    // The same burst through pressButtons
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public FloorDirection burstOfBatchedPresses() {
+        int start = next++ & (CALLS / BURST - 1);
+        FloorRequestTable requests = elevator.getFloorsToVisit();
+        for (int i = 0; i < BURST; i++) {
+            previous[i] = requests.get(BenchmarkElevators.floorOf(calls[start * BURST + i]));
+        }
+        elevator.pressButtons(IntBuffer.wrap(events, start * BURST, BURST));
+        return restore(start);
+    }
+
+    // Restores in reverse order, so a floor pressed twice gets the value from before the burst
+    private FloorDirection restore(int start) {
+        FloorRequestTable requests = elevator.getFloorsToVisit();
+        FloorDirection last = null;
+        for (int i = BURST - 1; i >= 0; i--) {
+            last = requests.set(BenchmarkElevators.floorOf(calls[start * BURST + i]), previous[i]);
+        }
+        return last;
+    }
+
+    private void pressNext() {
+        int call = calls[next++ & (CALLS - 1)];
+        elevator.callButtonPressed(BenchmarkElevators.floorOf(call), BenchmarkElevators.directionOf(call));
+    }
+}
@@ -0,0 +1,98 @@
+package com.project.app.elevator;
+
+import com.project.app.util.EventJournal;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.JournalEventType;
+import com.project.app.util.SecurityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call latency of the logged hot methods with the logging configuration in log4j2.xml.
+ * Pass -Dlog4j2.configurationFile=... through -jvmArgs to compare configurations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final int FLOORS = 64;
+
+    private ElevatorImpl elevator;
+    private EventJournal journal;
+    private int next;
+    // A hall call on every floor, as pressButtons events
+    private int[] burst;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        elevator = BenchmarkElevators.build(FLOORS, SecurityType.NONE, new ArrayList<>());
+        journal = new EventJournal(Files.createTempDirectory("journal"));
+        burst = new int[FLOORS];
+        for (int floor = 0; floor < FLOORS; floor++) {
+            burst[floor] = ButtonEvents.hallCall(floor, floor == 0 ? FloorDirection.UP : FloorDirection.DOWN);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        journal.close();
+    }
+
+    // Registers a hall call and moves the car to serve it
+    @Benchmark
+    public int callAndMove() {
+        int floor = 1 + (next++ * 7) % (FLOORS - 1);
+        elevator.callButtonPressed(floor, FloorDirection.DOWN);
+        elevator.moveCurrentFloor();
+        return elevator.getCurrentFloor();
+    }
+
+    // A hall call on every floor pressed one at a time, per press
+    @Benchmark
+    @OperationsPerInvocation(FLOORS)
+    public boolean burstOfSinglePresses() {
+        for (int floor = 0; floor < FLOORS; floor++) {
+            elevator.callButtonPressed(floor, floor == 0 ? FloorDirection.UP : FloorDirection.DOWN);
+        }
+        return clearRequests();
+    }
+
+    // The same burst through pressButtons, per press
+    @Benchmark
+    @OperationsPerInvocation(FLOORS)
+    public boolean burstOfBatchedPresses() {
+        elevator.pressButtons(burst);
+        return clearRequests();
+    }
+
+    // Cost of one binary journal record, to compare with a log line
+    @Benchmark
+    public long journalAppend() throws IOException {
+        journal.append(JournalEventType.HALL_CALL_REGISTERED, next++ & (FLOORS - 1), FloorDirection.DOWN.ordinal());
+        return journal.getSequence();
+    }
+
+    private boolean clearRequests() {
+        elevator.getFloorsToVisit().clearRequests();
+        return elevator.getFloorsToVisit().hasNoRequests();
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorSet;
+import com.project.app.util.SecurityType;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Security checks per SecurityType, including badge lookup against rosters of different sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityBenchmark {
+    private static final int FLOORS = 64;
+
+    @Param({"NONE", "GENERAL", "SPECIFIED"})
+    SecurityType securityType;
+
+    @Param({"10", "10000"})
+    int users;
+
+    private ElevatorImpl elevator;
+    private FloorSet allowedFloors;
+    private String[] cards;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configurator.setLevel("com.project.app", org.apache.logging.log4j.Level.WARN);
+        ArrayList<String> authorizedUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            authorizedUsers.add("user-" + i);
+        }
+        elevator = BenchmarkElevators.build(FLOORS, securityType, authorizedUsers);
+        allowedFloors = FloorSet.all(FLOORS);
+        // Half of the taps are from badges on the roster, half are unknown
+        cards = new String[256];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = (i & 1) == 0 ? "user-" + (i * 7919 % users) : "visitor-" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean isAuthorized() {
+        int i = next++;
+        return securityType.isAuthorized((i & 1) != 0, (i & 2) != 0, (i & 4) != 0);
+    }
+
+    @Benchmark
+    public Boolean authenticate() {
+        elevator.authenticateFloors(cards[next++ & (cards.length - 1)], allowedFloors);
+        return elevator.getAuthenticated();
+    }
+
+    @Benchmark
+    public boolean checkSecurity() {
+        return elevator.checkSecurity(next++ & (FLOORS - 1));
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.app.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.app.config.ConfigRepository;
+import com.project.app.config.ElevatorConfig;
+import com.project.app.config.UserConfig;
+import com.project.app.elevator.ElevatorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading elevator and user configs the way the UI does when the elevator or user is changed.
+ * {@code parse*} reads and binds the file every time, {@code cached*} goes through the ConfigRepository.
+ * Must be run from the project root so the config directory can be found.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigRepository configs;
+
+    @Param({"none_4", "specified_8"})
+    String elevatorName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        configs = new ConfigRepository(Paths.get("config"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        configs.close();
+    }
+
+    @Benchmark
+    public ElevatorImpl parseElevator() throws IOException {
+        return objectMapper.readValue(new File("config/elevator/" + elevatorName + ".json"), ElevatorConfig.class)
+                .buildElevator();
+    }
+
+    @Benchmark
+    public User parseUser() throws IOException {
+        return UI.buildUser(objectMapper.readValue(new File("config/users/8/joe.json"), UserConfig.class));
+    }
+
+    @Benchmark
+    public ElevatorImpl cachedElevator() throws IOException {
+        return configs.getElevator(elevatorName).buildElevator();
+    }
+
+    @Benchmark
+    public User cachedUser() throws IOException {
+        return UI.buildUser(configs.getUser(8, "joe"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.app.simulation;
+
+import com.project.app.elevator.ElevatorImpl;
+import com.project.app.elevator.SchedulingPolicy;
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.SecurityType;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every scheduling policy under the same seeded workload: two simulated hours of traffic per building and pattern.
+ * The score is the wall-clock cost of simulating the workload. The secondary results {@code averageWait},
+ * {@code p99Wait} (simulated seconds) and {@code throughput} (riders per simulated hour) are what to compare when
+ * picking a policy for a building. JMH sums secondary results over measurement iterations, so there is one
+ * measurement iteration: the workload is the same in every iteration and further ones would only repeat it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 1)
+@Fork(1)
+public class SchedulingPolicyBenchmark {
+    private static final long DURATION = 2 * 3_600_000;
+
+    @Param({"collective", "look", "scan", "shortest-seek", "eta"})
+    String policy;
+
+    // Floors and cars
+    @Param({"8x2", "16x3", "32x6"})
+    String building;
+
+    @Param({"interfloor", "uppeak", "downpeak"})
+    String traffic;
+
+    private int numFloors;
+    private int numCars;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configurator.setLevel("com.project.app", org.apache.logging.log4j.Level.WARN);
+        String[] size = building.split("x");
+        numFloors = Integer.parseInt(size[0]);
+        numCars = Integer.parseInt(size[1]);
+    }
+
+    @Benchmark
+    public SimulationReport simulate(Results results) {
+        // Busy but below saturation: about 60 riders per hour per floor served
+        double callsPerHour = numFloors * 60.0;
+        TrafficGenerator generator = switch (traffic) {
+            case "uppeak" -> RandomTrafficGenerator.upPeak(numFloors, 0, callsPerHour, 1);
+            case "downpeak" -> new RandomTrafficGenerator(numFloors, 0, callsPerHour, 0, 1, 1);
+            default -> RandomTrafficGenerator.interfloor(numFloors, callsPerHour, 1);
+        };
+        SimulationReport report = SimulationEngine.builder()
+                .cars(buildCars())
+                .traffic(generator)
+                .schedulingPolicy(SchedulingPolicy.of(policy))
+                .build()
+                .run(DURATION);
+        results.averageWait = report.averageWait() / 1000;
+        results.p99Wait = report.p99Wait() / 1000.0;
+        results.throughput = report.throughputPerHour();
+        return report;
+    }
+
+    private List<ElevatorImpl> buildCars() {
+        ArrayList<String> floors = new ArrayList<>();
+        for (int i = 0; i < numFloors; i++) {
+            floors.add(String.valueOf(i + 1));
+        }
+        List<ElevatorImpl> cars = new ArrayList<>();
+        for (int i = 0; i < numCars; i++) {
+            cars.add(ElevatorImpl.builder()
+                    .floors(floors)
+                    .securityType(SecurityType.NONE)
+                    .defaultFloor(0)
+                    .floorsToVisit(new ArrayList<>(Collections.nCopies(numFloors, FloorDirection.NONE)))
+                    .authorizedFloors(new ArrayList<>(Collections.nCopies(numFloors, false)))
+                    .authorizedUsers(new ArrayList<>())
+                    .doorStatus(DoorStatus.CLOSED)
+                    .authenticated(false)
+                    .direction(0)
+                    .currentFloor(0)
+                    .build());
+        }
+        return cars;
+    }
+
+    // Simulated results of the last run, reported next to the wall-clock score
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Results {
+        public double averageWait;
+        public double p99Wait;
+        public double throughput;
+    }
+}
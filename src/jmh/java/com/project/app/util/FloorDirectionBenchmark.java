@@ -0,0 +1,82 @@
+package com.project.app.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans every floor with FloorDirection.shouldStop, against the bitmap checks in FloorRequestTable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloorDirectionBenchmark {
+
+    @Param({"4", "8", "64", "512"})
+    int floors;
+
+    @Param({"0.1", "0.5"})
+    double density;
+
+    private FloorDirection[] directions;
+    private FloorRequestTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(1);
+        directions = new FloorDirection[floors];
+        table = new FloorRequestTable(floors);
+        for (int i = 0; i < floors; i++) {
+            directions[i] = random.nextDouble() < density ?
+                    FloorDirection.values()[1 + random.nextInt(3)] :
+                    FloorDirection.NONE;
+            table.set(i, directions[i]);
+        }
+    }
+
+    @Benchmark
+    public int shouldStop() {
+        int stops = 0;
+        for (FloorDirection direction : directions) {
+            if (direction.shouldStop(1)) {
+                stops++;
+            }
+        }
+        return stops;
+    }
+
+    @Benchmark
+    public int tableShouldStop() {
+        int stops = 0;
+        for (int i = 0; i < floors; i++) {
+            if (table.shouldStop(i, 1)) {
+                stops++;
+            }
+        }
+        return stops;
+    }
+
+    @Benchmark
+    public int tableNextAtOrAbove() {
+        int stops = 0;
+        for (int i = table.nextAtOrAbove(0, 1); i != -1; i = table.nextAtOrAbove(i + 1, 1)) {
+            stops++;
+        }
+        return stops;
+    }
+}
@@ -0,0 +1,119 @@
+package com.project.app.config;
+
+import com.project.app.elevator.ElevatorImpl;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Applies config file changes to a running elevator without rebuilding it.
+ * When the elevator's config file changes, security type, default floor and authorized users are swapped into the
+ * car in one step (see {@link ElevatorImpl#applySettings}) and its queued stops are kept. A change to the floors
+ * cannot be applied to a running car and is ignored until the elevator is rebuilt. A file that cannot be read or
+ * parsed, such as one caught halfway through being saved, leaves the current settings in place.
+ * <p>
+ * Changes are picked up by the ConfigRepository's watcher thread, and the callbacks run on that thread.
+ */
+public class ConfigReloader implements Closeable {
+    private static final Logger logger = LogManager.getLogger(ConfigReloader.class);
+
+    private final ConfigRepository configs;
+    private final String elevatorName;
+    private final ElevatorImpl elevator;
+    private final Runnable onElevatorReload;
+    private final Consumer<Path> listener = this::configChanged;
+    private volatile UserWatch userWatch;
+    private volatile long reloadCount;
+
+    /**
+     * Starts applying changes of an elevator config to a car.
+     * @param configs ConfigRepository the car's config was loaded from
+     * @param elevatorName String name of the elevator config, such as general_4
+     * @param elevator ElevatorImpl built from the config
+     * @param onElevatorReload Runnable called after new settings are applied
+     */
+    public ConfigReloader(ConfigRepository configs, String elevatorName, ElevatorImpl elevator,
+                          Runnable onElevatorReload) {
+        this.configs = configs;
+        this.elevatorName = elevatorName;
+        this.elevator = elevator;
+        this.onElevatorReload = onElevatorReload;
+        configs.addListener(listener);
+    }
+
+    /**
+     * Watches a user config as well, replacing any user watched before.
+     * @param numFloors int number of floors of the elevator the user belongs to
+     * @param userName String name of the user config, such as joe
+     * @param onUserReload Consumer called with the reloaded user config
+     */
+    public void watchUser(int numFloors, String userName, Consumer<UserConfig> onUserReload) {
+        userWatch = new UserWatch(configs.userPath(numFloors, userName), numFloors, userName, onUserReload);
+    }
+
+    // Number of changes applied since the reloader was created
+    public long getReloadCount() {
+        return reloadCount;
+    }
+
+    // Stops applying changes
+    @Override
+    public void close() {
+        configs.removeListener(listener);
+    }
+
+    private void configChanged(Path file) {
+        UserWatch user = userWatch;
+        if (file.equals(configs.elevatorPath(elevatorName))) {
+            reloadElevator();
+        } else if (user != null && file.equals(user.file())) {
+            reloadUser(user);
+        }
+    }
+
+    private void reloadElevator() {
+        ElevatorConfig config;
+        try {
+            config = configs.getElevator(elevatorName);
+        } catch (IOException e) {
+            logger.error("Elevator config {} could not be reloaded: {}", elevatorName, e.getMessage());
+            return;
+        }
+        if (!config.floors().equals(elevator.getFloors())) {
+            logger.error("Floors of elevator config {} changed. Rebuild the elevator to apply them", elevatorName);
+            return;
+        }
+        try {
+            elevator.applySettings(config.settings());
+        } catch (IllegalArgumentException e) {
+            logger.error("Elevator config {} is invalid: {}", elevatorName, e.getMessage());
+            return;
+        }
+        reloadCount++;
+        onElevatorReload.run();
+    }
+
+    private void reloadUser(UserWatch user) {
+        UserConfig config;
+        try {
+            config = configs.getUser(user.numFloors(), user.name());
+        } catch (IOException e) {
+            logger.error("User config {} could not be reloaded: {}", user.name(), e.getMessage());
+            return;
+        }
+        if (config.allowedFloors().size() != user.numFloors()) {
+            logger.error("User config {} does not match an elevator with {} floors", user.name(), box(user.numFloors()));
+            return;
+        }
+        reloadCount++;
+        user.onReload().accept(config);
+    }
+
+    private record UserWatch(Path file, int numFloors, String name, Consumer<UserConfig> onReload) {}
+}
@@ -0,0 +1,219 @@
+package com.project.app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Loads elevator and user configs and keeps them parsed in memory.
+ * Files are bound straight to ElevatorConfig and UserConfig records with one shared ObjectMapper. A WatchService
+ * drops cached entries when their file changes, so the next request reads the new version from disk.
+ * Safe to use from several threads.
+ */
+public class ConfigRepository implements Closeable {
+    // ObjectMapper is thread-safe once configured, so every repository shares one
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String CONFIG_SUFFIX = ".json";
+
+    private static final Logger logger = LogManager.getLogger(ConfigRepository.class);
+
+    private final Path elevatorDirectory;
+    private final Path usersDirectory;
+    // Parsed files by path, and config names by directory path
+    private final ConcurrentHashMap<Path, Object> cache = new ConcurrentHashMap<>();
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<Path>> listeners = new CopyOnWriteArrayList<>();
+    private final WatchService watchService;
+
+    /**
+     * @param configDirectory Path of the config directory holding the elevator/ and users/ directories
+     * @throws IOException if the file watcher cannot be started
+     */
+    public ConfigRepository(Path configDirectory) throws IOException {
+        this.elevatorDirectory = configDirectory.resolve("elevator");
+        this.usersDirectory = configDirectory.resolve("users");
+        this.watchService = configDirectory.getFileSystem().newWatchService();
+        Thread.ofPlatform().daemon().name("config-watcher").start(this::watch);
+    }
+
+    /**
+     * Returns an elevator config.
+     * @param name String file name without extension, such as general_4
+     * @return ElevatorConfig parsed config
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public ElevatorConfig getElevator(String name) throws IOException {
+        return load(elevatorPath(name), ElevatorConfig.class);
+    }
+
+    /**
+     * Returns a user config.
+     * @param numFloors int number of floors of the elevator the user belongs to
+     * @param name String file name without extension, such as joe
+     * @return UserConfig parsed config
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public UserConfig getUser(int numFloors, String name) throws IOException {
+        return load(userPath(numFloors, name), UserConfig.class);
+    }
+
+    /**
+     * Returns every user config for an elevator size. Files that are not cached yet are parsed in parallel.
+     * @param numFloors int number of floors
+     * @return List of user configs, ordered by file name
+     * @throws IOException if a file cannot be read or parsed
+     */
+    public List<UserConfig> getUsers(int numFloors) throws IOException {
+        Path directory = usersDirectory.resolve(String.valueOf(numFloors));
+        try {
+            return listConfigs(directory).parallelStream()
+                    .map(name -> {
+                        try {
+                            return load(directory.resolve(name + CONFIG_SUFFIX), UserConfig.class);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Names of the elevator configs, ordered
+    public List<String> listElevators() throws IOException {
+        return listConfigs(elevatorDirectory);
+    }
+
+    // Names of the user configs for an elevator size, ordered
+    public List<String> listUsers(int numFloors) throws IOException {
+        return listConfigs(usersDirectory.resolve(String.valueOf(numFloors)));
+    }
+
+    /**
+     * Registers a listener called with the path of every config file that changes on disk.
+     * The cached entry has already been dropped when the listener is called.
+     * @param listener Consumer of the changed file path
+     */
+    public void addListener(Consumer<Path> listener) {
+        listeners.add(listener);
+    }
+
+    // Stops calling a listener added with addListener
+    public void removeListener(Consumer<Path> listener) {
+        listeners.remove(listener);
+    }
+
+    // Stops watching the config files
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    // File holding an elevator config
+    Path elevatorPath(String name) {
+        return elevatorDirectory.resolve(name + CONFIG_SUFFIX);
+    }
+
+    // File holding a user config
+    Path userPath(int numFloors, String name) {
+        return usersDirectory.resolve(String.valueOf(numFloors)).resolve(name + CONFIG_SUFFIX);
+    }
+
+    private <T> T load(Path file, Class<T> type) throws IOException {
+        watchDirectory(file.getParent());
+        try {
+            // A change event for the file waits for a load in progress, then drops what it stored
+            return type.cast(cache.computeIfAbsent(file, path -> {
+                try {
+                    return MAPPER.readValue(path.toFile(), type);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> listConfigs(Path directory) throws IOException {
+        watchDirectory(directory);
+        try {
+            return (List<String>) cache.computeIfAbsent(directory, path -> {
+                List<String> names = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*" + CONFIG_SUFFIX)) {
+                    for (Path file : stream) {
+                        String name = file.getFileName().toString();
+                        names.add(name.substring(0, name.length() - CONFIG_SUFFIX.length()));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                names.sort(null);
+                return List.copyOf(names);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void watchDirectory(Path directory) throws IOException {
+        if (!watchedDirectories.contains(directory) && Files.isDirectory(directory)) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            watchedDirectories.add(directory);
+        }
+    }
+
+    // Runs on the watcher thread until close is called
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost, drop everything from this directory
+                        cache.keySet().removeIf(path -> path.startsWith(directory));
+                        continue;
+                    }
+                    Path file = directory.resolve((Path) event.context());
+                    cache.remove(file);
+                    cache.remove(directory);
+                    logger.info("Config changed:{}", file);
+                    for (Consumer<Path> listener : listeners) {
+                        try {
+                            listener.accept(file);
+                        } catch (RuntimeException e) {
+                            logger.error("Config listener failed: {}", e.getMessage());
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(directory);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Repository closed
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.app.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.project.app.elevator.ElevatorImpl;
+import com.project.app.elevator.ElevatorSettings;
+import com.project.app.util.CredentialStore;
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorSet;
+import com.project.app.util.SecurityType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed elevator config file. Matches the files in config/elevator/.
+ * @param elevatorName String name shown by the UI
+ * @param floors List of floor labels
+ * @param securityType SecurityType used by the elevator
+ * @param defaultFloor int index the elevator returns to when idle
+ * @param authorizedUsers List of users that can be authenticated
+ * @param currentFloor int index of the starting floor
+ * @param numFloors int number of floors
+ */
+public record ElevatorConfig(
+        @JsonProperty("ElevatorName") String elevatorName,
+        List<String> floors,
+        SecurityType securityType,
+        int defaultFloor,
+        List<String> authorizedUsers,
+        int currentFloor,
+        int numFloors) {
+
+    public ElevatorConfig {
+        floors = List.copyOf(floors);
+        authorizedUsers = List.copyOf(authorizedUsers);
+    }
+
+    // Builds a new car in its starting state
+    public ElevatorImpl buildElevator() {
+        return ElevatorImpl.builder()
+                .floors(new ArrayList<>(floors))
+                .securityType(securityType)
+                .defaultFloor(defaultFloor)
+                .floorsToVisit(Collections.nCopies(numFloors, FloorDirection.NONE))
+                .authorizedFloors(FloorSet.none(numFloors))
+                .authorizedUsers(authorizedUsers)
+                .doorStatus(DoorStatus.CLOSED)
+                .authenticated(false)
+                .direction(0)
+                .currentFloor(currentFloor)
+                .build();
+    }
+
+    // Settings that can be applied to a running car built from this config
+    public ElevatorSettings settings() {
+        return new ElevatorSettings(securityType, defaultFloor, new CredentialStore(authorizedUsers));
+    }
+}
@@ -0,0 +1,193 @@
+package com.project.app.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.project.app.util.FloorSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Streams a roster of badge holders from one file instead of one config file per user.
+ * Two formats are read, chosen by file extension:
+ * <ul>
+ *     <li>{@code .jsonl}: one user config per line, {@code {"name": "Joe", "allowedFloors": [true, false, true]}}</li>
+ *     <li>{@code .csv}: {@code name,floors} per line, where floors has one {@code 1} or {@code 0} per floor, such as
+ *     {@code Joe,101}. An optional first line starting with {@code name} is skipped.</li>
+ * </ul>
+ * Rows are read one at a time and handed to a consumer, so memory use does not grow with the roster beyond what
+ * the consumer keeps. Floor permissions are interned FloorSets, shared by every user with the same access.
+ * A bad row is counted and reported, and the import carries on with the next row.
+ */
+public class RosterImporter {
+    // Bad rows kept in the report. Every bad row is counted.
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Logger logger = LogManager.getLogger(RosterImporter.class);
+
+    private final int numFloors;
+    // Reused for every row, FloorSet.of copies it into a bitmap
+    private final boolean[] floors;
+
+    /**
+     * @param numFloors int number of floors of the elevators the roster is for
+     */
+    public RosterImporter(int numFloors) {
+        if (numFloors <= 0) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.numFloors = numFloors;
+        this.floors = new boolean[numFloors];
+    }
+
+    /**
+     * Reads a roster file.
+     * @param file Path of a .jsonl or .csv roster
+     * @param consumer BiConsumer called with the name and floor permissions of every valid row, in file order
+     * @return ImportReport with the number of users imported and the rows that were rejected
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file extension is not .jsonl or .csv
+     */
+    public ImportReport importRoster(Path file, BiConsumer<String, FloorSet> consumer) throws IOException {
+        String fileName = file.getFileName().toString();
+        boolean csv;
+        if (fileName.endsWith(".csv")) {
+            csv = true;
+        } else if (fileName.endsWith(".jsonl")) {
+            csv = false;
+        } else {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+
+        long imported = 0;
+        long rejected = 0;
+        List<RowError> errors = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                Files.newBufferedReader(file, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (csv && lineNumber == 1 && line.startsWith("name"))) {
+                    continue;
+                }
+                try {
+                    String name = csv ? parseCsv(line) : parseJson(line);
+                    consumer.accept(name, FloorSet.of(floors));
+                    imported++;
+                } catch (IOException | IllegalArgumentException e) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(new RowError(lineNumber, e.getMessage()));
+                    }
+                }
+            }
+        }
+        logger.info("Imported roster {}. Users:{}; Rejected rows:{}", fileName, box(imported), box(rejected));
+        return new ImportReport(imported, rejected, errors);
+    }
+
+    // Reads "name,floors" into floors, returns the name
+    private String parseCsv(String line) {
+        int comma = line.lastIndexOf(',');
+        if (comma <= 0) {
+            throw new IllegalArgumentException("Expected name,floors");
+        }
+        String name = line.substring(0, comma).strip();
+        String access = line.substring(comma + 1).strip();
+        if (access.length() != numFloors) {
+            throw new IllegalArgumentException("Expected " + numFloors + " floors, found " + access.length());
+        }
+        for (int i = 0; i < numFloors; i++) {
+            char c = access.charAt(i);
+            if (c != '0' && c != '1') {
+                throw new IllegalArgumentException("Floor access must be 0 or 1");
+            }
+            floors[i] = c == '1';
+        }
+        return requireName(name);
+    }
+
+    // Reads one JSON user config into floors with the streaming parser, returns the name
+    private String parseJson(String line) throws IOException {
+        String name = null;
+        boolean floorsFound = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("name") && value == JsonToken.VALUE_STRING) {
+                    name = parser.getText();
+                } else if (field.equals("allowedFloors") && value == JsonToken.START_ARRAY) {
+                    parseFloors(parser);
+                    floorsFound = true;
+                } else {
+                    // Unknown fields are ignored
+                    parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                throw new IllegalArgumentException("Expected one JSON object per line");
+            }
+        }
+        if (!floorsFound) {
+            throw new IllegalArgumentException("Missing allowedFloors");
+        }
+        return requireName(name);
+    }
+
+    private void parseFloors(JsonParser parser) throws IOException {
+        int floor = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_TRUE && token != JsonToken.VALUE_FALSE) {
+                throw new IllegalArgumentException("Floor access must be true or false");
+            }
+            if (floor == numFloors) {
+                throw new IllegalArgumentException("Expected " + numFloors + " floors, found more");
+            }
+            floors[floor++] = token == JsonToken.VALUE_TRUE;
+        }
+        if (floor != numFloors) {
+            throw new IllegalArgumentException("Expected " + numFloors + " floors, found " + floor);
+        }
+    }
+
+    private static String requireName(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Missing name");
+        }
+        return name;
+    }
+
+    /**
+     * Result of an import.
+     * @param imported long number of users passed to the consumer
+     * @param rejected long number of bad rows
+     * @param errors List of the first bad rows
+     */
+    public record ImportReport(long imported, long rejected, List<RowError> errors) {}
+
+    /**
+     * Row that could not be imported.
+     * @param line long line number in the file, starting at 1
+     * @param message String describing the problem
+     */
+    public record RowError(long line, String message) {}
+}
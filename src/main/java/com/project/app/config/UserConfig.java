@@ -0,0 +1,10 @@
+package com.project.app.config;
+
+import com.project.app.util.FloorSet;
+
+/**
+ * Parsed user config file. Matches the files in config/users/{numFloors}/.
+ * @param name String name of the user
+ * @param allowedFloors FloorSet of floors the user can access
+ */
+public record UserConfig(String name, FloorSet allowedFloors) {}
@@ -0,0 +1,54 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+
+/**
+ * Encodes button presses as single ints for {@link ElevatorImpl#pressButtons}, so a burst of presses from the floor
+ * controllers fits in an {@code int[]} or {@code IntBuffer} without an object per press.
+ * An event is {@code floor << 2 | kind}, where kind is 0 for an UP hall call, 1 for a DOWN hall call and 2 for a car
+ * call. Kind 3 is not used and is rejected.
+ */
+public final class ButtonEvents {
+    static final int HALL_UP = 0;
+    static final int HALL_DOWN = 1;
+    static final int CAR_CALL = 2;
+
+    private ButtonEvents() {}
+
+    /**
+     * @param floor int index of the floor
+     * @param callDir FloorDirection UP or DOWN
+     * @return int encoded hall call
+     * @throws IllegalArgumentException if the floor is negative or too large to encode, or callDir is not UP or DOWN
+     */
+    public static int hallCall(int floor, FloorDirection callDir) {
+        if (callDir != FloorDirection.UP && callDir != FloorDirection.DOWN) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        return encode(floor, callDir == FloorDirection.UP ? HALL_UP : HALL_DOWN);
+    }
+
+    /**
+     * @param floor int index of the floor
+     * @return int encoded car call
+     * @throws IllegalArgumentException if the floor is negative or too large to encode
+     */
+    public static int carCall(int floor) {
+        return encode(floor, CAR_CALL);
+    }
+
+    public static int floorOf(int event) {
+        return event >>> 2;
+    }
+
+    static int kindOf(int event) {
+        return event & 3;
+    }
+
+    private static int encode(int floor, int kind) {
+        if (floor < 0 || floor > Integer.MAX_VALUE >>> 2) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        return floor << 2 | kind;
+    }
+}
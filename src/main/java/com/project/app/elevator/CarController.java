@@ -0,0 +1,312 @@
+package com.project.app.elevator;
+
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.LatencyHistogram;
+import lombok.Builder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Drives cars in real time. Each car runs on its own virtual thread that owns its ElevatorImpl, so the car
+ * needs no locking: buttons are sent to the car through a bounded queue and applied on the car's thread.
+ * The car thread moves the car whenever it has requests, one floor per travel time with the door closed, serves the
+ * stop once it gets there and keeps the door open for the dwell time. Calls made while the car travels are taken into
+ * account at the next floor. A call for the floor the car has just left is registered and served on a later pass.
+ * An idle car returns to its default floor after a while.
+ * Event-to-action latency (button event queued until applied by the car) is recorded in nanoseconds.
+ * <p>
+ * With a snapshot file, every car publishes a copy of its state after each change, and a background thread writes
+ * the latest copies to the file periodically (see {@link SnapshotFile}). A final snapshot is written on stop, so a
+ * controller restored from the file continues with the same requests.
+ */
+public class CarController {
+    private static final long IDLE_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final List<ElevatorImpl> cars;
+    private final List<BlockingQueue<ButtonEvent>> queues;
+    private final long floorTravelTime;
+    private final long doorDwellTime;
+    private final long idleReturnTime;
+    private final List<Thread> threads = new ArrayList<>();
+    private final LatencyHistogram eventLatencies = new LatencyHistogram();
+    // Latest state of every car for the snapshot writer, null when snapshots are disabled
+    private final Path snapshotFile;
+    private final long snapshotInterval;
+    private final AtomicReferenceArray<SnapshotFile.CarImage> images;
+    private final AtomicLong imageVersion = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean paused;
+
+    private static final Logger logger = LogManager.getLogger(CarController.class);
+
+    /**
+     * @param cars List of cars to drive. Cars must not be used by other threads while the controller runs.
+     * @param floorTravelTime long milliseconds to travel one floor, defaults to 2 s
+     * @param doorDwellTime long milliseconds the door stays open at a stop, defaults to 10 s
+     * @param idleReturnTime long milliseconds without requests before returning to the default floor, defaults to 60 s
+     * @param queueCapacity int maximum pending button events per car, defaults to 64
+     * @param snapshotFile Path the car state is saved to, null to disable snapshots
+     * @param snapshotInterval long milliseconds between snapshots, defaults to 5 s
+     */
+    @Builder
+    CarController(List<ElevatorImpl> cars, long floorTravelTime, long doorDwellTime, long idleReturnTime,
+                  int queueCapacity, Path snapshotFile, long snapshotInterval) {
+        if (cars == null || cars.isEmpty()) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.cars = new ArrayList<>(cars);
+        this.floorTravelTime = TimeUnit.MILLISECONDS.toNanos(floorTravelTime > 0 ? floorTravelTime : 2_000);
+        this.doorDwellTime = TimeUnit.MILLISECONDS.toNanos(doorDwellTime > 0 ? doorDwellTime : 10_000);
+        this.idleReturnTime = TimeUnit.MILLISECONDS.toNanos(idleReturnTime > 0 ? idleReturnTime : 60_000);
+        this.queues = new ArrayList<>();
+        for (int i = 0; i < cars.size(); i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity > 0 ? queueCapacity : 64));
+        }
+        this.snapshotFile = snapshotFile;
+        this.snapshotInterval = TimeUnit.MILLISECONDS.toNanos(snapshotInterval > 0 ? snapshotInterval : 5_000);
+        this.images = snapshotFile == null ? null : new AtomicReferenceArray<>(this.cars.size());
+    }
+
+    /**
+     * Starts one virtual thread per car. Does nothing if the controller is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        paused = false;
+        for (int i = 0; i < cars.size(); i++) {
+            int car = i;
+            cars.get(car).publishSnapshot();
+            if (images != null) {
+                images.set(car, SnapshotFile.capture(cars.get(car)));
+            }
+            threads.add(Thread.ofVirtual().name("car-" + i).start(() -> runCar(car)));
+        }
+        if (images != null) {
+            threads.add(Thread.ofVirtual().name("car-snapshots").start(this::writeSnapshots));
+        }
+        logger.info("Car controller started with {} cars", box(cars.size()));
+    }
+
+    /**
+     * Stops every car thread and waits for them to finish. Queued button events are discarded.
+     * @throws InterruptedException if interrupted while waiting for the car threads
+     */
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        threads.clear();
+        for (BlockingQueue<ButtonEvent> queue : queues) {
+            queue.clear();
+        }
+        if (snapshotFile != null) {
+            // Car threads have finished, so the cars can be read directly
+            try {
+                SnapshotFile.write(snapshotFile, cars);
+            } catch (IOException e) {
+                logger.error("Final snapshot could not be written: {}", e.getMessage());
+            }
+        }
+        logger.info("Car controller stopped");
+    }
+
+    // Holds every car where it is. Button events are still applied while paused.
+    public void pause() {
+        paused = true;
+        logger.info("Car controller paused");
+    }
+
+    // Lets the cars move again after pause
+    public void resume() {
+        paused = false;
+        logger.info("Car controller resumed");
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Queues a hall call for a car.
+     * @param car int index of the car
+     * @param floor int index of the floor
+     * @param callDir FloorDirection direction being requested
+     * @return boolean false if the car's queue is full and the event was dropped
+     */
+    public boolean callButtonPressed(int car, int floor, FloorDirection callDir) {
+        return offer(car, new ButtonEvent(floor, callDir, null, System.nanoTime()));
+    }
+
+    /**
+     * Queues an interior button press for a car.
+     * @param car int index of the car
+     * @param button String that corresponds to elevator button
+     * @return boolean false if the car's queue is full and the event was dropped
+     */
+    public boolean interiorButtonPressed(int car, String button) {
+        return offer(car, new ButtonEvent(-1, null, button, System.nanoTime()));
+    }
+
+    public int getCarCount() {
+        return cars.size();
+    }
+
+    // Car state may only be read safely while the controller is stopped or paused with empty queues
+    public ElevatorImpl getCar(int car) {
+        return cars.get(car);
+    }
+
+    /**
+     * Returns the state of a car as of its last event or move. Safe to call from any thread while the controller runs.
+     * @param car int index of the car
+     * @return ElevatorSnapshot latest state, null if the controller was never started
+     */
+    public ElevatorSnapshot getSnapshot(int car) {
+        return cars.get(car).getSnapshot();
+    }
+
+    // Nanoseconds from a button event being queued until the car applied it
+    public LatencyHistogram getEventLatencies() {
+        return eventLatencies;
+    }
+
+    private boolean offer(int car, ButtonEvent event) {
+        if (!queues.get(car).offer(event)) {
+            logger.warn("Event queue full for car:{}. Dropping event", box(car));
+            return false;
+        }
+        return true;
+    }
+
+    // Event loop of a single car. Runs until stop is called.
+    private void runCar(int car) {
+        ElevatorImpl elevator = cars.get(car);
+        BlockingQueue<ButtonEvent> queue = queues.get(car);
+        // Car may not leave before nextMove while dwelling, and reaches the next floor at nextMove while travelling
+        long nextMove = System.nanoTime();
+        while (running) {
+            try {
+                boolean travelling = elevator.isTravelling();
+                boolean hasRequests = !elevator.getFloorsToVisit().hasNoRequests();
+                boolean idleAtDefault = !travelling && !hasRequests &&
+                        elevator.getCurrentFloor() == elevator.getParkingFloor();
+                // Idle car returns to its default (or parking) floor once it has had nothing to do for idleReturnTime
+                long deadline = hasRequests || travelling ? nextMove : nextMove + idleReturnTime;
+                long wait = paused || idleAtDefault ? IDLE_CHECK_INTERVAL : deadline - System.nanoTime();
+
+                ButtonEvent event = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                if (event != null) {
+                    apply(elevator, event);
+                    publish(car, elevator);
+                    continue;
+                }
+                if (paused || idleAtDefault || System.nanoTime() < deadline) {
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                // Counted from the floor the car has just reached while travelling
+                if (elevator.distanceToNextStop() == 0) {
+                    // At the stop: serve it
+                    elevator.moveCurrentFloor();
+                    nextMove = now + (elevator.getDoorStatus() == DoorStatus.OPEN ? doorDwellTime : 0);
+                } else {
+                    // Set off with the door closed, or pass the floor reached after one floor of travel
+                    if (travelling) {
+                        elevator.passFloor();
+                    } else {
+                        elevator.depart();
+                    }
+                    nextMove = now + floorTravelTime;
+                }
+                publish(car, elevator);
+            } catch (InterruptedException e) {
+                // stop was called
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // A failing event or policy must not end the car's thread. The car holds for a moment and carries on.
+                logger.error("Car:{} failed, holding before the next move", box(car), e);
+                nextMove = System.nanoTime() + IDLE_CHECK_INTERVAL;
+            }
+        }
+    }
+
+    private void apply(ElevatorImpl elevator, ButtonEvent event) {
+        try {
+            if (event.button() == null) {
+                elevator.callButtonPressed(event.floor(), event.direction());
+            } else {
+                elevator.interiorButtonPressed(event.button());
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            logger.error("Invalid button event dropped: {}", e.getMessage());
+        }
+        eventLatencies.record(System.nanoTime() - event.queuedAt());
+    }
+
+    // Publishes the car's state for monitors and hands a copy to the snapshot writer
+    private void publish(int car, ElevatorImpl elevator) {
+        elevator.publishSnapshot();
+        if (images != null) {
+            images.set(car, SnapshotFile.capture(elevator));
+            imageVersion.incrementAndGet();
+        }
+    }
+
+    // Writes the latest car states every snapshotInterval while they keep changing. Runs until stop is called.
+    private void writeSnapshots() {
+        long written = -1;
+        while (running) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(snapshotInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long version = imageVersion.get();
+            if (version == written) {
+                continue;
+            }
+            List<SnapshotFile.CarImage> latest = new ArrayList<>(images.length());
+            for (int i = 0; i < images.length(); i++) {
+                latest.add(images.get(i));
+            }
+            try {
+                SnapshotFile.writeImages(snapshotFile, latest);
+                written = version;
+            } catch (IOException e) {
+                // Interrupted writes are expected on stop, which writes a final snapshot
+                if (running) {
+                    logger.error("Snapshot could not be written: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private record ButtonEvent(int floor, FloorDirection direction, String button, long queuedAt) {}
+}
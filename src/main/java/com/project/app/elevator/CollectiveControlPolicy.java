@@ -0,0 +1,29 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorRequestTable;
+
+/**
+ * Directional collective control, the elevator's original behavior. Performs up to 3 searches:
+ * the first checks for floors requested in the current direction starting at the current floor, the second checks in
+ * the opposite direction starting from the far end, and the third repeats the second with the direction flipped back.
+ * Only calls in the direction the car is travelling stop it, so riders always board a car going their way.
+ */
+public class CollectiveControlPolicy implements SchedulingPolicy {
+
+    @Override
+    public Stop nextStop(FloorRequestTable requests, int currentFloor, int direction) {
+        int floor = SchedulingPolicy.nextRequest(requests, currentFloor, direction, direction);
+        if (floor != -1) {
+            return new Stop(floor, direction);
+        }
+        // Match not found in current direction. Change direction and check from opposite end
+        direction = -direction;
+        floor = SchedulingPolicy.nextRequest(requests, direction == -1 ? requests.size() - 1 : 0, direction, direction);
+        if (floor != -1) {
+            return new Stop(floor, direction);
+        }
+        direction = -direction;
+        floor = SchedulingPolicy.nextRequest(requests, direction == -1 ? requests.size() - 1 : 0, direction, direction);
+        return floor == -1 ? null : new Stop(floor, direction);
+    }
+}
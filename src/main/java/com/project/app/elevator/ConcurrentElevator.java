@@ -0,0 +1,384 @@
+package com.project.app.elevator;
+
+import com.project.app.util.CredentialStore;
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorRequestTable;
+import com.project.app.util.FloorSet;
+import com.project.app.util.SecurityType;
+import lombok.Builder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Thread-safe Elevator for hall panels, car panels and a motion controller running on different threads.
+ * Floor requests are kept in two lock-free bitmaps (up-requests and down-requests), so button presses register
+ * with a single compare-and-set and never wait for a move. currentFloor, direction and doorStatus are only
+ * written while holding the motion lock, which button presses for floors never take.
+ * Stops are chosen by a SchedulingPolicy, collective control unless another policy is given, as in ElevatorImpl.
+ */
+public class ConcurrentElevator implements Elevator {
+    private final List<String> floors;
+    private final int numFloors;
+    private final SecurityType securityType;
+    private final int defaultFloor;
+    private final CredentialStore authorizedUsers;
+    // Picks the next stop from a copy of the request bitmaps, taken under the motion lock
+    private final SchedulingPolicy schedulingPolicy;
+
+    // Request bitmaps, one bit per floor
+    private final AtomicLongArray up;
+    private final AtomicLongArray down;
+
+    // Motion state, written by the thread holding the motion lock
+    private final ReentrantLock motion = new ReentrantLock();
+    private volatile int currentFloor;
+    private volatile int direction;
+    private volatile DoorStatus doorStatus;
+
+    // Authentication and floors of the most recent user, swapped as one value
+    private final AtomicReference<Access> access;
+
+    // Requests that set a new bit, requests cleared by a visit and requests cleared by an emergency stop
+    private final LongAdder registered = new LongAdder();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+
+    private static final Logger logger = LogManager.getLogger(ConcurrentElevator.class);
+
+    /**
+     * @param floors List of floor labels
+     * @param securityType SecurityType used by the elevator
+     * @param defaultFloor int index the elevator returns to when idle
+     * @param authorizedUsers Collection of users that can be authenticated
+     * @param currentFloor int index of the starting floor
+     * @param schedulingPolicy SchedulingPolicy choosing the next stop, collective control if null
+     */
+    @Builder
+    ConcurrentElevator(List<String> floors, SecurityType securityType, int defaultFloor,
+                       Collection<String> authorizedUsers, int currentFloor, SchedulingPolicy schedulingPolicy) {
+        if (floors == null || floors.isEmpty() || defaultFloor < 0 || defaultFloor >= floors.size() ||
+                currentFloor < 0 || currentFloor >= floors.size()) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.floors = List.copyOf(floors);
+        this.numFloors = floors.size();
+        this.securityType = securityType == null ? SecurityType.NONE : securityType;
+        this.defaultFloor = defaultFloor;
+        this.authorizedUsers = new CredentialStore(authorizedUsers == null ? List.of() : authorizedUsers);
+        this.up = new AtomicLongArray((numFloors + 63) >>> 6);
+        this.down = new AtomicLongArray((numFloors + 63) >>> 6);
+        this.currentFloor = currentFloor;
+        this.doorStatus = DoorStatus.CLOSED;
+        this.access = new AtomicReference<>(new Access(false, FloorSet.none(numFloors)));
+        this.schedulingPolicy = schedulingPolicy == null ? new CollectiveControlPolicy() : schedulingPolicy;
+    }
+
+    /**
+     * Simulates an elevator call-button being pressed. Registers the request without blocking. A call for the floor
+     * the car is standing at opens the door instead, as in ElevatorImpl, unless a move is in progress.
+     * @param floor int index of the floor
+     * @param callDir FloorDirection direction being requested
+     * @throws IllegalArgumentException Thrown for out-of-bounds index, requesting BOTH for any floor,
+     *      DOWN on bottom floor, or UP on top floor
+     * @throws NullPointerException Thrown if {@code callDir} is null
+     */
+    @Override
+    public void callButtonPressed(int floor, FloorDirection callDir) {
+        logger.info("Call Button Pressed. Floor:{}; Call Direction:{}", box(floor), callDir);
+        if (callDir == null) {
+            logger.error("Failed: Null Argument Given");
+            throw new NullPointerException("FloorDirection argument is null");
+        } else if (floor < 0 || floor >= numFloors ||
+                (floor == 0 && callDir == FloorDirection.DOWN) ||
+                (floor == numFloors - 1 && callDir == FloorDirection.UP) ||
+                callDir == FloorDirection.BOTH || callDir == FloorDirection.NONE) {
+            logger.error("Failed: Invalid Argument Provided");
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        AtomicLongArray bits = callDir == FloorDirection.UP ? up : down;
+        if (!isSet(bits, floor) && currentFloor == floor && motion.tryLock()) {
+            try {
+                if (currentFloor == floor) {
+                    logger.info("Floor:{} is current floor", box(floor));
+                    openDoor();
+                    return;
+                }
+            } finally {
+                motion.unlock();
+            }
+        }
+        request(bits, floor);
+    }
+
+    /**
+     * Handles interior elevator button being pressed. Calls proper method based on parameter.
+     * Floor buttons register without blocking, door and emergency buttons wait for the current move to finish.
+     * @param button String that corresponds to elevator button
+     * @throws IllegalArgumentException if invalid argument is given
+     */
+    @Override
+    public void interiorButtonPressed(String button) {
+        logger.info("Interior Button: {} pressed", button);
+        int floor = floors.indexOf(button);
+        if (floor != -1) {
+            addFloor(floor);
+        } else if ("open".equals(button)) {
+            withMotionLock(this::openDoor);
+        } else if ("close".equals(button)) {
+            withMotionLock(this::closeDoor);
+        } else if ("emergency".equals(button)) {
+            withMotionLock(this::callEmergencyServices);
+        } else {
+            logger.error("Invalid argument given");
+            throw new IllegalArgumentException("Invalid argument given");
+        }
+    }
+
+    /**
+     * Allows certain users to access specific floors based on elevator security.
+     * @param card String containing user info.
+     * @param floors FloorSet of floors that user can access.
+     */
+    @Override
+    public void authenticateFloors(String card, FloorSet floors) {
+        logger.info("Attempting authentication for user:{}", card);
+        boolean authenticated = securityType.authenticate(authorizedUsers.contains(card));
+        if (securityType == SecurityType.SPECIFIED && authenticated) {
+            access.set(new Access(true, floors));
+        } else {
+            access.set(new Access(authenticated, authenticated ? FloorSet.all(numFloors) : FloorSet.none(numFloors)));
+        }
+        logger.info(authenticated ? "User Authenticated" : "User Unknown. Access Denied");
+    }
+
+    /**
+     * Simulates an elevator moving between floors. Moves are serialized, so only one thread changes
+     * the current floor, direction and door at a time.
+     */
+    @Override
+    public void moveCurrentFloor() {
+        withMotionLock(this::move);
+    }
+
+    // Checks if the most recently authenticated user may access desiredFloor
+    public boolean checkSecurity(int desiredFloor) {
+        return checkSecurity(access.get(), desiredFloor);
+    }
+
+    // Checks access the caller has already read, so the check and any later update see the same user
+    private boolean checkSecurity(Access current, int desiredFloor) {
+        return securityType.isAuthorized(
+                current.authenticated(),
+                currentFloor > defaultFloor,
+                current.floors().allows(desiredFloor));
+    }
+
+    /**
+     * Returns the requests registered for a floor.
+     * @param floor int index of floor
+     * @return FloorDirection NONE, UP, DOWN or BOTH
+     */
+    public FloorDirection getFloorDirection(int floor) {
+        if (floor < 0 || floor >= numFloors) {
+            throw new IndexOutOfBoundsException("Index " + floor + " out of bounds for length " + numFloors);
+        }
+        boolean isUp = isSet(up, floor);
+        boolean isDown = isSet(down, floor);
+        if (isUp) {
+            return isDown ? FloorDirection.BOTH : FloorDirection.UP;
+        }
+        return isDown ? FloorDirection.DOWN : FloorDirection.NONE;
+    }
+
+    public List<String> getFloors() {
+        return floors;
+    }
+
+    public int getCurrentFloor() {
+        return currentFloor;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public DoorStatus getDoorStatus() {
+        return doorStatus;
+    }
+
+    public boolean isAuthenticated() {
+        return access.get().authenticated();
+    }
+
+    // Requests that set a floor bit that was not already set
+    public long getRegisteredRequests() {
+        return registered.sum();
+    }
+
+    // Requests cleared by the car stopping at the floor
+    public long getServedRequests() {
+        return served.sum();
+    }
+
+    // Requests cleared by an emergency stop
+    public long getCancelledRequests() {
+        return cancelled.sum();
+    }
+
+    // Requests currently waiting to be served
+    public int getPendingRequests() {
+        int count = 0;
+        for (int i = 0; i < up.length(); i++) {
+            count += Long.bitCount(up.get(i)) + Long.bitCount(down.get(i));
+        }
+        return count;
+    }
+
+    private void move() {
+        closeDoor();
+        if (direction == 0) {
+            changeDirection();
+        }
+        // Presses only set bits and bits are only cleared under the motion lock, so the copied requests are all pending
+        FloorRequestTable requests = FloorRequestTable.fromWords(numFloors, words(up), words(down));
+        SchedulingPolicy.Stop stop = schedulingPolicy.nextStop(requests, currentFloor, direction);
+        if (stop == null) {
+            logger.info("No requested floors found. Resetting elevator to default floor and direction");
+            currentFloor = defaultFloor;
+            changeDirection();
+            return;
+        }
+        moveToStop(stop);
+    }
+
+    /*
+     * Moves the car to the stop chosen by the scheduling policy, clears the requests it serves and opens the door.
+     * A stop that serves no request is passed through with the door closed. A press landing after the clear sets the
+     * bit again and is served later.
+     */
+    private void moveToStop(SchedulingPolicy.Stop stop) {
+        int floor = stop.floor();
+        direction = stop.direction();
+        currentFloor = floor;
+        boolean served = serve(direction == 1 ? up : down, floor);
+        boolean oppositeServed = stop.allCalls() && serve(direction == 1 ? down : up, floor);
+        if (!served && !oppositeServed) {
+            logger.info("Passing through floor:{}", box(floor));
+            return;
+        }
+        logger.info("Floor found. Moving elevator to floor:{}", box(floor));
+        openDoor();
+    }
+
+    // Clears the request for floor and reports whether there was one
+    private boolean serve(AtomicLongArray bits, int floor) {
+        long bit = 1L << floor;
+        if ((bits.getAndAccumulate(floor >>> 6, ~bit, (word, mask) -> word & mask) & bit) == 0) {
+            return false;
+        }
+        served.increment();
+        return true;
+    }
+
+    /*
+     * Registers a car request if the user is authorized. An authentication grants one request: it is
+     * consumed before the floor is registered, so of several presses on one authentication only the press
+     * that swaps it out registers. The others are checked again as an unauthenticated user.
+     */
+    private void addFloor(int newFloor) {
+        while (true) {
+            Access current = access.get();
+            if (!checkSecurity(current, newFloor)) {
+                return;
+            }
+            int floor = currentFloor;
+            if (floor == newFloor) {
+                logger.info("User attempted to request current floor.");
+                withMotionLock(this::openDoor);
+                return;
+            }
+            // Leaves a newer authentication in place
+            if (!current.authenticated() ||
+                    access.compareAndSet(current, new Access(false, FloorSet.none(numFloors)))) {
+                request(floor < newFloor ? up : down, newFloor);
+                return;
+            }
+        }
+    }
+
+    private void request(AtomicLongArray bits, int floor) {
+        long bit = 1L << floor;
+        if ((bits.getAndAccumulate(floor >>> 6, bit, (word, mask) -> word | mask) & bit) == 0) {
+            registered.increment();
+            logger.info("Requesting floor:{}", box(floor));
+        } else {
+            logger.info("Floor:{} already requested", box(floor));
+        }
+    }
+
+    private void changeDirection() {
+        if (currentFloor == 0 || (direction == 0 && currentFloor <= defaultFloor)) {
+            direction = 1;
+        } else if (currentFloor == numFloors - 1 || direction == 0) {
+            direction = -1;
+        } else {
+            direction = -direction;
+        }
+    }
+
+    private void openDoor() {
+        if (doorStatus != DoorStatus.OPEN) {
+            logger.info("Opening Door");
+            doorStatus = DoorStatus.OPEN;
+        }
+    }
+
+    private void closeDoor() {
+        if (doorStatus != DoorStatus.CLOSED) {
+            logger.info("Closing Door");
+            doorStatus = DoorStatus.CLOSED;
+        }
+    }
+
+    // Clears every request, sets direction to stationary and closes door
+    private void callEmergencyServices() {
+        direction = 0;
+        closeDoor();
+        for (int i = 0; i < up.length(); i++) {
+            cancelled.add(Long.bitCount(up.getAndSet(i, 0)) + Long.bitCount(down.getAndSet(i, 0)));
+        }
+    }
+
+    private void withMotionLock(Runnable action) {
+        motion.lock();
+        try {
+            action.run();
+        } finally {
+            motion.unlock();
+        }
+    }
+
+    private static long[] words(AtomicLongArray bits) {
+        long[] words = new long[bits.length()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = bits.get(i);
+        }
+        return words;
+    }
+
+    private static boolean isSet(AtomicLongArray bits, int floor) {
+        return (bits.get(floor >>> 6) & (1L << floor)) != 0;
+    }
+
+    private record Access(boolean authenticated, FloorSet floors) {}
+}
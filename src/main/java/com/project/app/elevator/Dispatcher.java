@@ -0,0 +1,471 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorRequestTable;
+import com.project.app.util.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Group controller that owns several elevator cars serving the same floors.
+ * Each hall call is assigned to the car with the lowest estimated time-to-arrival.
+ * Wait times (hall call registered until served) are tracked per car and for the whole group.
+ * <p>
+ * Alongside UP/DOWN hall calls the dispatcher supports destination dispatch: riders enter their destination at the
+ * hall with {@link #destinationCallPressed}, and riders going to the same floors are grouped into the same car so
+ * each trip makes fewer stops. The car is given the destination stop when the call is assigned.
+ * <p>
+ * Estimates follow each car's SchedulingPolicy. The route of a car with collective control is worked out directly,
+ * the route of a car with any other policy by asking the policy for each stop on a copy of the car's requests.
+ */
+public class Dispatcher {
+    // Estimated seconds to travel one floor and to serve one intermediate stop
+    static final int FLOOR_TRAVEL_TIME = 2;
+    static final int STOP_TIME = 10;
+
+    private static final long NOT_PENDING = -1;
+    private static final int DEFAULT_CAR_CAPACITY = 16;
+
+    private final List<ElevatorImpl> cars;
+    private final int numFloors;
+    private final LongSupplier clock;
+
+    // Hall call bookkeeping, indexed by slot(floor, direction)
+    private final long[] callTimes;
+    private final int[] assignedCars;
+    // Destination call bookkeeping, indexed by car * numFloors * 2 + slot(floor, direction)
+    private final long[] destinationCallTimes;
+    // Riders assigned to a car at a floor since the car last left it
+    private final int[] tripRiders;
+    // Destinations loaded once the car stops at the rider's floor, created on first use
+    private final BitSet[] heldDestinations;
+    private int carCapacity = DEFAULT_CAR_CAPACITY;
+
+    private final LatencyHistogram groupWaitTimes = new LatencyHistogram();
+    private final LatencyHistogram[] carWaitTimes;
+
+    private static final Logger logger = LogManager.getLogger(Dispatcher.class);
+
+    /**
+     * Creates a dispatcher that measures wait times in nanoseconds.
+     * @param cars List of cars to dispatch. All cars must serve the same number of floors.
+     */
+    public Dispatcher(List<ElevatorImpl> cars) {
+        this(cars, System::nanoTime);
+    }
+
+    /**
+     * Creates a dispatcher using the given clock for wait-time stats.
+     * @param cars List of cars to dispatch. All cars must serve the same number of floors.
+     * @param clock LongSupplier returning the current time in the unit used by the stats
+     * @throws IllegalArgumentException if no cars are given or cars have different numbers of floors
+     */
+    public Dispatcher(List<ElevatorImpl> cars, LongSupplier clock) {
+        if (cars.isEmpty()) {
+            throw new IllegalArgumentException("Dispatcher requires at least one car");
+        }
+        this.cars = new ArrayList<>(cars);
+        this.numFloors = cars.get(0).getFloors().size();
+        for (ElevatorImpl car : cars) {
+            if (car.getFloors().size() != numFloors) {
+                throw new IllegalArgumentException("All cars must serve the same floors");
+            }
+        }
+        this.clock = clock;
+        this.callTimes = new long[numFloors * 2];
+        this.assignedCars = new int[numFloors * 2];
+        Arrays.fill(callTimes, NOT_PENDING);
+        this.destinationCallTimes = new long[cars.size() * numFloors * 2];
+        this.tripRiders = new int[cars.size() * numFloors * 2];
+        this.heldDestinations = new BitSet[cars.size() * numFloors * 2];
+        Arrays.fill(destinationCallTimes, NOT_PENDING);
+        this.carWaitTimes = new LatencyHistogram[cars.size()];
+        for (int i = 0; i < carWaitTimes.length; i++) {
+            carWaitTimes[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Assigns a hall call to the car with the lowest estimated time-to-arrival.
+     * Repeated calls for a floor and direction that is still pending return the car already assigned.
+     * @param floor int index of the floor
+     * @param callDir FloorDirection direction being requested
+     * @return int index of the car serving the call
+     * @throws IllegalArgumentException Thrown for out-of-bounds index, requesting BOTH or NONE for any floor,
+     *      DOWN on bottom floor, or UP on top floor
+     * @throws NullPointerException Thrown if {@code callDir} is null
+     */
+    public int callButtonPressed(int floor, FloorDirection callDir) {
+        if (callDir == null) {
+            throw new NullPointerException("FloorDirection argument is null");
+        } else if (floor < 0 || floor >= numFloors ||
+                (floor == 0 && callDir == FloorDirection.DOWN) ||
+                (floor == numFloors - 1 && callDir == FloorDirection.UP) ||
+                callDir == FloorDirection.BOTH || callDir == FloorDirection.NONE) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+
+        int slot = slot(floor, callDir);
+        if (callTimes[slot] != NOT_PENDING && hasRequest(cars.get(assignedCars[slot]), floor, callDir)) {
+            return assignedCars[slot];
+        }
+
+        int best = 0;
+        int bestEta = Integer.MAX_VALUE;
+        for (int i = 0; i < cars.size(); i++) {
+            int eta = estimateTimeToArrival(cars.get(i), floor, callDir);
+            if (eta < bestEta) {
+                best = i;
+                bestEta = eta;
+            }
+        }
+        logger.info("Hall call Floor:{}; Direction:{} assigned to car:{}; ETA:{}", box(floor), callDir, box(best), box(bestEta));
+
+        ElevatorImpl car = cars.get(best);
+        long now = clock.getAsLong();
+        car.callButtonPressed(floor, callDir);
+        if (hasRequest(car, floor, callDir)) {
+            callTimes[slot] = now;
+            assignedCars[slot] = best;
+        } else {
+            // Car was already waiting at the floor and opened its door
+            recordWait(best, 0);
+        }
+        return best;
+    }
+
+    /**
+     * Destination dispatch: assigns a rider who entered their destination at the hall. Every car is costed by the
+     * rider's estimated time to reach the destination, plus the stops the rider would add to the car's trip, so riders
+     * going to floors a car already stops at are grouped into that car. Cars already holding a full load of riders
+     * from the floor are only used when every car is full, and then only the hall call is placed: the rider presses
+     * their destination on boarding, or calls again if left behind.
+     * <p>
+     * The destination is added to the car's floorsToVisit straight away when the car reaches the rider's floor before
+     * the destination. Otherwise, such as when the car is travelling away from the rider, it is added once the car
+     * stops for the rider, so the car does not serve the destination before the rider has boarded. Only collective
+     * control fixes the order of the stops ahead, so cars with other policies are always given the destination once
+     * the rider boards.
+     * Access to the destination is not checked here. Riders badge in when boarding, as with any car call.
+     * @param origin int index of the floor the rider is waiting on
+     * @param destination int index of the floor the rider wants to reach
+     * @return int index of the car the rider should board
+     * @throws IllegalArgumentException Thrown for out-of-bounds indexes or the same origin and destination
+     */
+    public int destinationCallPressed(int origin, int destination) {
+        if (origin < 0 || origin >= numFloors || destination < 0 || destination >= numFloors || origin == destination) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+
+        FloorDirection callDir = destination > origin ? FloorDirection.UP : FloorDirection.DOWN;
+        int slot = slot(origin, callDir);
+        int best = -1;
+        int bestCost = Integer.MAX_VALUE;
+        boolean bestFull = true;
+        for (int i = 0; i < cars.size(); i++) {
+            boolean full = tripRiders[index(i, slot)] >= carCapacity;
+            int cost = estimateTripCost(i, origin, destination, callDir);
+            if (best == -1 || (bestFull && !full) || (full == bestFull && cost < bestCost)) {
+                best = i;
+                bestCost = cost;
+                bestFull = full;
+            }
+        }
+        logger.info("Destination call Floor:{}; Destination:{} assigned to car:{}; Cost:{}",
+                box(origin), box(destination), box(best), box(bestCost));
+
+        ElevatorImpl car = cars.get(best);
+        int index = index(best, slot);
+        tripRiders[index]++;
+        long now = clock.getAsLong();
+        car.callButtonPressed(origin, callDir);
+        boolean waiting = hasRequest(car, origin, callDir);
+        if (waiting && destinationCallTimes[index] == NOT_PENDING) {
+            destinationCallTimes[index] = now;
+        }
+        if (bestFull) {
+            // Rider won't fit on this trip. No stop is planned for a rider who may be left behind.
+            return best;
+        }
+        if (!waiting) {
+            // Car was already waiting at the floor and opened its door. The rider boards now.
+            recordWait(best, 0);
+            car.addDestination(origin, destination);
+            return best;
+        }
+        if (reachesOriginFirst(car, origin, callDir)) {
+            car.addDestination(origin, destination);
+        } else {
+            if (heldDestinations[index] == null) {
+                heldDestinations[index] = new BitSet(numFloors);
+            }
+            heldDestinations[index].set(destination);
+        }
+        return best;
+    }
+
+    /**
+     * Moves a single car to its next stop and records the wait time of any hall call it served.
+     * Destinations of destination calls served by the stop are loaded into the car.
+     * @param car int index of the car
+     */
+    public void moveCar(int car) {
+        ElevatorImpl elevator = cars.get(car);
+        int from = elevator.getCurrentFloor();
+        elevator.moveCurrentFloor();
+        departed(car, elevator, from, FloorDirection.UP);
+        departed(car, elevator, from, FloorDirection.DOWN);
+        int floor = elevator.getCurrentFloor();
+        checkServed(car, elevator, floor, FloorDirection.UP);
+        checkServed(car, elevator, floor, FloorDirection.DOWN);
+    }
+
+    /**
+     * Moves every car once.
+     */
+    public void moveAll() {
+        for (int i = 0; i < cars.size(); i++) {
+            moveCar(i);
+        }
+    }
+
+    /**
+     * Estimates how long a car needs to reach a hall call, in seconds.
+     * Travel is counted along the route the car's SchedulingPolicy takes and every pending stop on the way adds a fixed
+     * cost.
+     * @param car ElevatorImpl to estimate for
+     * @param floor int index of the called floor
+     * @param callDir FloorDirection of the call, UP or DOWN
+     * @return int estimated time-to-arrival
+     */
+    int estimateTimeToArrival(ElevatorImpl car, int floor, FloorDirection callDir) {
+        FloorRequestTable requests = car.getFloorsToVisit();
+        int current = car.getCurrentFloor();
+        int lowest = requests.lowestRequest();
+        int highest = requests.highestRequest();
+        if (lowest == -1) {
+            // Idle car travels straight to the floor
+            return Math.abs(current - floor) * FLOOR_TRAVEL_TIME;
+        }
+        if (!(car.getSchedulingPolicy() instanceof CollectiveControlPolicy)) {
+            return estimateAlongRoute(car, floor, callDir);
+        }
+
+        int direction = car.getDirection() != 0 ? car.getDirection() : (floor >= current ? 1 : -1);
+        int callDirection = callDir == FloorDirection.UP ? 1 : -1;
+        boolean ahead = (floor - current) * direction >= 0;
+        int distance;
+        int routeLow;
+        int routeHigh;
+        if (ahead && callDirection == direction) {
+            // Floor is on the way
+            distance = Math.abs(floor - current);
+            routeLow = Math.min(floor, current);
+            routeHigh = Math.max(floor, current);
+        } else {
+            // Car finishes its sweep before turning around
+            int turn = direction == 1 ? Math.max(Math.max(highest, current), floor) : Math.min(Math.min(lowest, current), floor);
+            if (callDirection != direction) {
+                distance = Math.abs(turn - current) + Math.abs(turn - floor);
+                routeLow = Math.min(Math.min(turn, current), floor);
+                routeHigh = Math.max(Math.max(turn, current), floor);
+            } else {
+                // Floor is behind the car in its own direction. Car sweeps both ends before reaching it
+                int secondTurn = direction == 1 ? Math.min(lowest, floor) : Math.max(highest, floor);
+                distance = Math.abs(turn - current) + Math.abs(turn - secondTurn) + Math.abs(secondTurn - floor);
+                routeLow = Math.min(turn, secondTurn);
+                routeHigh = Math.max(turn, secondTurn);
+            }
+        }
+
+        int stops = requests.countRequests(routeLow, routeHigh)
+                - (requests.get(floor) != FloorDirection.NONE ? 1 : 0);
+        return distance * FLOOR_TRAVEL_TIME + stops * STOP_TIME;
+    }
+
+    /*
+     * Time-to-arrival for a car whose policy is not collective control. The policy picks each stop on a copy of the car's
+     * requests with the call added, until a stop answers the call.
+     */
+    private int estimateAlongRoute(ElevatorImpl car, int floor, FloorDirection callDir) {
+        FloorRequestTable requests = car.getFloorsToVisit();
+        FloorRequestTable route = FloorRequestTable.fromWords(numFloors, requests.upWords(), requests.downWords());
+        SchedulingPolicy policy = car.getSchedulingPolicy();
+        int callDirection = callDir == FloorDirection.UP ? 1 : -1;
+        route.addRequest(floor, callDirection);
+        int current = car.getCurrentFloor();
+        // A stationary car sets off the way moveCurrentFloor turns it
+        int direction = car.getDirection() != 0 ? car.getDirection() :
+                (current == 0 || current <= car.getDefaultFloor() ? 1 : -1);
+        int time = 0;
+        // Every stop clears a request or reaches an end floor, so the call is answered well within this many stops
+        for (int stops = 0; stops < numFloors * 4; stops++) {
+            SchedulingPolicy.Stop stop = policy.nextStop(route, current, direction);
+            if (stop == null) {
+                break;
+            }
+            time += Math.abs(stop.floor() - current) * FLOOR_TRAVEL_TIME;
+            current = stop.floor();
+            direction = stop.direction();
+            if (current == floor && (direction == callDirection || stop.allCalls())) {
+                return time;
+            }
+            boolean served = route.shouldStop(current, direction) ||
+                    (stop.allCalls() && route.shouldStop(current, -direction));
+            route.visitFloor(current, direction);
+            if (stop.allCalls()) {
+                route.visitFloor(current, -direction);
+            }
+            if (served) {
+                time += STOP_TIME;
+            }
+        }
+        return time + Math.abs(current - floor) * FLOOR_TRAVEL_TIME;
+    }
+
+    /**
+     * Estimates how long a rider needs to reach their destination in a car, in seconds, plus a cost for every stop the
+     * rider adds to the car's trip.
+     * @param car int index of the car
+     * @param origin int index of the rider's floor
+     * @param destination int index of the rider's destination
+     * @param callDir FloorDirection of the trip, UP or DOWN
+     * @return int estimated cost
+     */
+    int estimateTripCost(int car, int origin, int destination, FloorDirection callDir) {
+        ElevatorImpl elevator = cars.get(car);
+        FloorRequestTable requests = elevator.getFloorsToVisit();
+        BitSet held = heldDestinations[index(car, slot(origin, callDir))];
+        int low = Math.min(origin, destination);
+        int high = Math.max(origin, destination);
+
+        // Stops the rider sits through between boarding and arriving
+        int stops = requests.countRequests(low + 1, high - 1);
+        if (held != null) {
+            stops += held.get(low + 1, Math.max(low + 1, high)).cardinality();
+        }
+        // Stops the rider adds for everyone else in the car
+        if (!hasRequest(elevator, origin, callDir) && elevator.getCurrentFloor() != origin) {
+            stops++;
+        }
+        if (!requests.shouldStop(destination, callDir == FloorDirection.UP ? 1 : -1) &&
+                (held == null || !held.get(destination))) {
+            stops++;
+        }
+        return estimateTimeToArrival(elevator, origin, callDir) + (high - low) * FLOOR_TRAVEL_TIME + stops * STOP_TIME;
+    }
+
+    /**
+     * Parks idle cars where the detector expects the next calls instead of at their default floor. Hall calls placed
+     * on any car are recorded by the detector, and each car is given its own share of the parking floors.
+     * @param detector TrafficPatternDetector for the floors of the cars
+     * @throws IllegalArgumentException if the detector is for a different number of floors
+     */
+    public void enableAdaptiveParking(TrafficPatternDetector detector) {
+        if (detector.getNumFloors() != numFloors) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        for (int i = 0; i < cars.size(); i++) {
+            cars.get(i).setParking(detector.parking(i, cars.size()));
+        }
+    }
+
+    // Maximum riders grouped into one car at a floor by destination dispatch, defaults to 16
+    public void setCarCapacity(int carCapacity) {
+        if (carCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.carCapacity = carCapacity;
+    }
+
+    public int getCarCount() {
+        return cars.size();
+    }
+
+    public ElevatorImpl getCar(int car) {
+        return cars.get(car);
+    }
+
+    // Wait times of hall calls served by every car
+    public LatencyHistogram getGroupWaitTimes() {
+        return groupWaitTimes;
+    }
+
+    // Wait times of hall calls served by a single car
+    public LatencyHistogram getCarWaitTimes(int car) {
+        return carWaitTimes[car];
+    }
+
+    // Records the wait of a pending hall call once the assigned car has cleared it, and loads held destinations
+    private void checkServed(int car, ElevatorImpl elevator, int floor, FloorDirection callDir) {
+        int slot = slot(floor, callDir);
+        if (hasRequest(elevator, floor, callDir)) {
+            return;
+        }
+        if (callTimes[slot] != NOT_PENDING && assignedCars[slot] == car) {
+            recordWait(car, clock.getAsLong() - callTimes[slot]);
+            callTimes[slot] = NOT_PENDING;
+        }
+        int index = index(car, slot);
+        if (destinationCallTimes[index] != NOT_PENDING) {
+            recordWait(car, clock.getAsLong() - destinationCallTimes[index]);
+            destinationCallTimes[index] = NOT_PENDING;
+        }
+        BitSet held = heldDestinations[index];
+        if (held != null && !held.isEmpty()) {
+            for (int destination = held.nextSetBit(0); destination >= 0; destination = held.nextSetBit(destination + 1)) {
+                elevator.addDestination(floor, destination);
+            }
+            held.clear();
+        }
+    }
+
+    // Starts a new trip count for calls at the floor a car has left once they are served
+    private void departed(int car, ElevatorImpl elevator, int floor, FloorDirection callDir) {
+        int index = index(car, slot(floor, callDir));
+        if (tripRiders[index] != 0 && !hasRequest(elevator, floor, callDir)) {
+            tripRiders[index] = 0;
+        }
+    }
+
+    /*
+     * True if collective control takes the car to origin before any floor past it in the rider's direction: the car
+     * is travelling the other way and sweeps back from the far end, or is travelling the rider's way and has not
+     * passed origin. An idle car may set off either way, so its destinations are held. Other policies can reorder the
+     * stops ahead as calls arrive, such as shortest seek going to the destination first, so their destinations are held.
+     */
+    private static boolean reachesOriginFirst(ElevatorImpl car, int origin, FloorDirection callDir) {
+        if (!(car.getSchedulingPolicy() instanceof CollectiveControlPolicy)) {
+            return false;
+        }
+        int direction = callDir == FloorDirection.UP ? 1 : -1;
+        return car.getDirection() == -direction ||
+                (car.getDirection() == direction && (origin - car.getCurrentFloor()) * direction >= 0);
+    }
+
+    private void recordWait(int car, long wait) {
+        carWaitTimes[car].record(wait);
+        groupWaitTimes.record(wait);
+    }
+
+    private static boolean hasRequest(ElevatorImpl car, int floor, FloorDirection callDir) {
+        FloorDirection requested = car.getFloorsToVisit().get(floor);
+        return requested == callDir || requested == FloorDirection.BOTH;
+    }
+
+    private int index(int car, int slot) {
+        return car * numFloors * 2 + slot;
+    }
+
+    private static int slot(int floor, FloorDirection callDir) {
+        return floor * 2 + (callDir == FloorDirection.UP ? 0 : 1);
+    }
+}
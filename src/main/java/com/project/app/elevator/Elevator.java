@@ -1,6 +1,7 @@
 package com.project.app.elevator;
 
 import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorSet;
 
 import java.util.ArrayList;
 
@@ -26,12 +27,21 @@ public interface Elevator {
      */
     void interiorButtonPressed(String button);
 
+    /**
+     * Allows certain users to access specific floors based on elevator security.
+     * @param card String containing user info.
+     * @param floors FloorSet of floors that user can access.
+     */
+    void authenticateFloors(String card, FloorSet floors);
+
     /**
      * Allows certain users to access specific floors based on elevator security.
      * @param card String containing user info.
      * @param floors ArrayList of floors that user can access.
      */
-    void authenticate(String card, ArrayList<Boolean> floors);
+    default void authenticate(String card, ArrayList<Boolean> floors) {
+        authenticateFloors(card, FloorSet.of(floors));
+    }
 
     /**
      * Simulates an elevator moving between floors.
@@ -1,40 +1,198 @@
 package com.project.app.elevator;
 
+import com.project.app.util.CredentialStore;
 import com.project.app.util.DoorStatus;
+import com.project.app.util.EventJournal;
 import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorRequestTable;
+import com.project.app.util.FloorSet;
+import com.project.app.util.JournalEventType;
+import com.project.app.util.MaintenanceLogReader;
 import com.project.app.util.SecurityType;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.core.appender.RollingRandomAccessFileAppender;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.IntBuffer;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import static org.apache.logging.log4j.util.Unbox.box;
 
 @Data
-@Builder
 public class ElevatorImpl implements Elevator {
     // Global Variables
     private ArrayList<String> floors;
-    private SecurityType securityType;
-    private int defaultFloor;
-    private ArrayList<FloorDirection> floorsToVisit;
-    private ArrayList<Boolean> authorizedFloors;
-    private ArrayList<String> authorizedUsers;
+    // Security type, default floor and authorized users. Replaced as a whole when the config is reloaded, so
+    // operations read it once. Only applySettings replaces it, after checking it.
+    @Setter(AccessLevel.NONE)
+    private volatile ElevatorSettings settings;
+    private FloorRequestTable floorsToVisit;
+    private FloorSet authorizedFloors;
     private DoorStatus doorStatus;
     private Boolean authenticated;
     private int direction;
     private int currentFloor;
-    private final String PATH_TO_LOGS = "logs/app.log";
+    // Real-time travel for CarController: 1 or -1 while the car travels from currentFloor to the next floor, else 0
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int travelDirection;
+    // Optional binary record of state transitions, null when not journaling
+    private EventJournal journal;
+    // Wait-time and service-time instrumentation, null when the car is not measured
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ElevatorMetrics metrics;
+    // Where the car waits once it has no requests, null to always return to the default floor
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private TrafficPatternDetector.Parking parking;
+    // Picks the next stop, collective control unless another policy is given
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private SchedulingPolicy schedulingPolicy;
+    // Button label to code, built from floors on first use and again if floors is replaced
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ButtonMap buttonMap;
+    // Latest state published for displays and monitors, null until the first publishSnapshot
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile ElevatorSnapshot published;
+    // Codes of the interior buttons that are not floors. Floor buttons are coded by the index of the floor.
+    public static final int OPEN_BUTTON = -1;
+    public static final int CLOSE_BUTTON = -2;
+    public static final int EMERGENCY_BUTTON = -3;
+    // Labels of OPEN_BUTTON, CLOSE_BUTTON and EMERGENCY_BUTTON, indexed by -1 - code
+    private static final String[] COMMAND_LABELS = {"open", "close", "emergency"};
+    // Same directory as logDir in log4j2.xml
+    private static final String PATH_TO_LOGS = System.getProperty("logDir", "logs") + "/app.log";
+    // Appender in log4j2.xml that writes PATH_TO_LOGS
+    private static final String LOG_APPENDER = "FileAppender";
+    // Lines returned by getMaintenanceLogs()
+    private static final int MAINTENANCE_LOG_LINES = 1000;
+    private static final MaintenanceLogReader maintenanceLogReader = new MaintenanceLogReader(Paths.get(PATH_TO_LOGS));
 
     private static final Logger logger = LogManager.getLogger(ElevatorImpl.class);
 
+    @Builder
+    ElevatorImpl(ArrayList<String> floors, SecurityType securityType, int defaultFloor,
+                 List<FloorDirection> floorsToVisit, List<Boolean> authorizedFloors,
+                 Collection<String> authorizedUsers, DoorStatus doorStatus, Boolean authenticated,
+                 int direction, int currentFloor, EventJournal journal, ElevatorMetrics metrics,
+                 SchedulingPolicy schedulingPolicy) {
+        this.floors = floors;
+        this.settings = new ElevatorSettings(securityType, defaultFloor,
+                authorizedUsers == null ? null : new CredentialStore(authorizedUsers));
+        this.floorsToVisit = floorsToVisit == null ? null : FloorRequestTable.copyOf(floorsToVisit);
+        this.authorizedFloors = authorizedFloors == null ? null : FloorSet.of(authorizedFloors);
+        this.doorStatus = doorStatus;
+        this.authenticated = authenticated;
+        this.direction = direction;
+        this.currentFloor = currentFloor;
+        this.journal = journal;
+        this.metrics = metrics;
+        this.schedulingPolicy = schedulingPolicy == null ? new CollectiveControlPolicy() : schedulingPolicy;
+    }
+
+    // Replaces the floors the current user can access
+    public void setAuthorizedFloors(List<Boolean> authorizedFloors) {
+        this.authorizedFloors = FloorSet.of(authorizedFloors);
+    }
+
+    public SecurityType getSecurityType() {
+        return settings.securityType();
+    }
+
+    public void setSecurityType(SecurityType securityType) {
+        settings = settings.withSecurityType(securityType);
+    }
+
+    public int getDefaultFloor() {
+        return settings.defaultFloor();
+    }
+
+    public void setDefaultFloor(int defaultFloor) {
+        settings = settings.withDefaultFloor(defaultFloor);
+    }
+
+    public CredentialStore getAuthorizedUsers() {
+        return settings.authorizedUsers();
+    }
+
+    // Replaces the authorized users with an indexed copy of authorizedUsers
+    public void setAuthorizedUsers(Collection<String> authorizedUsers) {
+        settings = settings.withAuthorizedUsers(new CredentialStore(authorizedUsers));
+    }
+
+    /**
+     * Applies reloaded settings to the running car. Queued stops, position, direction and the current user's
+     * authentication are kept. Safe to call from any thread: the settings are swapped with one reference write, and
+     * each operation on the car reads them once.
+     * @param settings ElevatorSettings to apply
+     * @throws IllegalArgumentException if the default floor is not a floor of this car
+     */
+    public void applySettings(ElevatorSettings settings) {
+        if (settings.securityType() == null || settings.authorizedUsers() == null ||
+                settings.defaultFloor() < 0 || settings.defaultFloor() >= floors.size()) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        logger.info("Applying settings. Security:{}; Default Floor:{}; Authorized Users:{}",
+                settings.securityType(), box(settings.defaultFloor()), box(settings.authorizedUsers().size()));
+        this.settings = settings;
+    }
+
+    // Grants a user access without rebuilding the authorized users index
+    public void addAuthorizedUser(String card) {
+        logger.info("Authorizing user:{}", card);
+        settings.authorizedUsers().add(card);
+    }
+
+    // Revokes a user's access without rebuilding the authorized users index
+    public void revokeAuthorizedUser(String card) {
+        logger.info("Revoking user:{}", card);
+        settings.authorizedUsers().remove(card);
+    }
+
+    // Floor the car waits at once it has no requests: the default floor, or the floor picked by adaptive parking
+    public int getParkingFloor() {
+        return parkingFloor(settings.defaultFloor());
+    }
+
+    private int parkingFloor(int defaultFloor) {
+        return parking == null ? defaultFloor : parking.floor(defaultFloor);
+    }
+
+    // Replaces the requested floors with a copy of floorsToVisit
+    public void setFloorsToVisit(List<FloorDirection> floorsToVisit) {
+        this.floorsToVisit = FloorRequestTable.copyOf(floorsToVisit);
+        if (metrics != null) {
+            metrics = metrics.forFloors(floorsToVisit.size());
+        }
+    }
+
     /**
      * Simulates an elevator call-button being pressed. Handles user input based on floor and direction
      * @param floor int index of the floor
@@ -46,7 +204,7 @@ public class ElevatorImpl implements Elevator {
     @Override
     public void callButtonPressed(int floor, FloorDirection callDir) {
         // Check for invalid inputs - if these fail, it indicates an error in the code
-        logger.info("Call Button Pressed. Floor:{}; Call Direction:{}", floor, callDir.toString());
+        logger.info("Call Button Pressed. Floor:{}; Call Direction:{}", box(floor), callDir);
         if ((floor == 0 && callDir.equals(FloorDirection.DOWN)) ||
                 (floor == floorsToVisit.size() - 1 && callDir.equals(FloorDirection.UP)) ||
                 (floor < 0 || floor >= floorsToVisit.size()) ||
@@ -57,19 +215,26 @@ public class ElevatorImpl implements Elevator {
             logger.error("Failed: Null Argument Given");
             throw new NullPointerException("FloorDirection argument is null");
         }
+        if (parking != null) {
+            parking.detector().recordCall(floor, callDir);
+        }
 
         if (floorsToVisit.get(floor).equals(callDir) || floorsToVisit.get(floor).equals(FloorDirection.BOTH)) {
-            logger.info("Floor:{} already called in Direction:{}", floor, callDir.toString());
+            logger.info("Floor:{} already called in Direction:{}", box(floor), callDir);
             return;
-        } else if (floor == currentFloor) {
-            logger.info("Floor:{} is current floor", floor);
+        } else if (floor == currentFloor && travelDirection == 0) {
+            logger.info("Floor:{} is current floor", box(floor));
             openDoor();
         } else if (floorsToVisit.get(floor) == FloorDirection.NONE) {
-            logger.info("Floor:{} hasn't been requested. Requesting floor:{} in direction:{}", floor, floor, callDir.toString());
+            logger.info("Floor:{} hasn't been requested. Requesting floor:{} in direction:{}", box(floor), box(floor), callDir);
             floorsToVisit.set(floor, callDir);
+            journal(JournalEventType.HALL_CALL_REGISTERED, floor, callDir.ordinal());
+            hallCallRegistered(floor, callDir);
         } else {
-            logger.info("Floor:{} has been requested. Requesting floor:{} in direction:BOTH", floor, floor);
+            logger.info("Floor:{} has been requested. Requesting floor:{} in direction:BOTH", box(floor), box(floor));
             floorsToVisit.set(floor, FloorDirection.BOTH);
+            journal(JournalEventType.HALL_CALL_REGISTERED, floor, callDir.ordinal());
+            hallCallRegistered(floor, callDir);
         }
     }
 
@@ -80,33 +245,151 @@ public class ElevatorImpl implements Elevator {
      */
     @Override
     public void interiorButtonPressed(String button) {
-        logger.info("Interior Button: {} pressed", button);
-        if (floors.contains(button)) {
-            // Floor button pressed. Adds floor
-            addFloor(floors.indexOf(button));
-        } else if (button.equals("open")) {
-            openDoor();
-        } else if (button.equals("close")) {
-            closeDoor();
-        } else if (button.equals("emergency")) {
-            callEmergencyServices();
-        } else {
-            // This block of code should not be reached.
+        interiorButtonPressed(buttonCode(button));
+    }
+
+    /**
+     * Handles interior elevator button being pressed, without looking up its label.
+     * @param code int index of a floor, or OPEN_BUTTON, CLOSE_BUTTON or EMERGENCY_BUTTON
+     * @throws IllegalArgumentException if invalid argument is given
+     */
+    public void interiorButtonPressed(int code) {
+        if (code >= floors.size() || code < EMERGENCY_BUTTON) {
             logger.error("Invalid argument given");
             throw new IllegalArgumentException("Invalid argument given");
         }
+        logger.info("Interior Button: {} pressed", code >= 0 ? floors.get(code) : COMMAND_LABELS[-1 - code]);
+        switch (code) {
+            case OPEN_BUTTON -> openDoor();
+            case CLOSE_BUTTON -> closeDoor();
+            case EMERGENCY_BUTTON -> callEmergencyServices();
+            // Floor button pressed. Adds floor
+            default -> addFloor(code);
+        }
+    }
+
+    /**
+     * Returns the code of an interior button, for callers that press the same buttons many times.
+     * @param button String label of a floor, or open, close or emergency
+     * @return int code for interiorButtonPressed(int)
+     * @throws IllegalArgumentException if there is no such button
+     */
+    public int buttonCode(String button) {
+        ButtonMap buttonMap = this.buttonMap;
+        if (buttonMap == null || buttonMap.floors() != floors || buttonMap.size() != floors.size()) {
+            buttonMap = ButtonMap.of(floors);
+            this.buttonMap = buttonMap;
+        }
+        Integer code = buttonMap.codes().get(button);
+        if (code == null) {
+            logger.error("Invalid argument given: {}", button);
+            throw new IllegalArgumentException("Invalid argument given");
+        }
+        return code;
+    }
+
+    /**
+     * Registers a burst of button presses in one pass. The requests, door and access of the car end up the same as
+     * pressing the buttons one at a time in order with {@code callButtonPressed} and {@code interiorButtonPressed}, but
+     * an invalid event is rejected instead of throwing, and the batch writes one log line instead of several per press.
+     * Presses of a floor that is already requested in the same direction, earlier in the batch or before it, are
+     * accepted and merged: they are not journaled, timed or counted by adaptive parking again.
+     * @param events IntBuffer of events encoded by {@link ButtonEvents}, read from its position to its limit.
+     *      The position is not changed.
+     * @return long array with bit {@code i} set if the {@code i}th event was accepted. Rejected events were out of
+     *      range, an invalid direction for the floor, or a car call the user is not authorized for.
+     */
+    public long[] pressButtons(IntBuffer events) {
+        int count = events.remaining();
+        int start = events.position();
+        long[] accepted = new long[(count + 63) >>> 6];
+        int numFloors = floorsToVisit.size();
+        ElevatorSettings settings = this.settings;
+        boolean carCallAccepted = false;
+        int registered = 0;
+        int rejected = 0;
+        for (int i = 0; i < count; i++) {
+            int event = events.get(start + i);
+            int floor = ButtonEvents.floorOf(event);
+            int kind = ButtonEvents.kindOf(event);
+            if (floor >= numFloors || kind > ButtonEvents.CAR_CALL ||
+                    (kind == ButtonEvents.HALL_UP && floor == numFloors - 1) ||
+                    (kind == ButtonEvents.HALL_DOWN && floor == 0)) {
+                rejected++;
+                continue;
+            }
+            if (kind == ButtonEvents.CAR_CALL) {
+                if (!settings.securityType().isAuthorized(authenticated, currentFloor > settings.defaultFloor(),
+                        authorizedFloors.allows(floor))) {
+                    rejected++;
+                    continue;
+                }
+                accepted[i >>> 6] |= 1L << i;
+                // A travelling car has left currentFloor, so the call is registered as with addFloor
+                if (floor == currentFloor && travelDirection == 0) {
+                    openDoor();
+                    continue;
+                }
+                FloorDirection tripDirection = tripDirection(floor);
+                if (floorsToVisit.addRequest(floor, tripDirection == FloorDirection.UP ? 1 : -1)) {
+                    registered++;
+                    FloorDirection floorDirection = floorsToVisit.get(floor);
+                    journal(JournalEventType.CAR_CALL_REGISTERED, floor, floorDirection.ordinal());
+                    if (metrics != null) {
+                        metrics.carCallRegistered(floor, tripDirection);
+                    }
+                }
+                // Each authentication is good for one car call, as with interiorButtonPressed
+                if (!carCallAccepted) {
+                    carCallAccepted = true;
+                    authenticated = false;
+                    authorizedFloors = FloorSet.none(numFloors);
+                }
+            } else {
+                accepted[i >>> 6] |= 1L << i;
+                int callDirection = kind == ButtonEvents.HALL_UP ? 1 : -1;
+                if (floorsToVisit.shouldStop(floor, callDirection)) {
+                    continue;
+                }
+                FloorDirection callDir = callDirection == 1 ? FloorDirection.UP : FloorDirection.DOWN;
+                if (parking != null) {
+                    parking.detector().recordCall(floor, callDir);
+                }
+                if (floor == currentFloor && travelDirection == 0) {
+                    openDoor();
+                } else {
+                    floorsToVisit.addRequest(floor, callDirection);
+                    registered++;
+                    journal(JournalEventType.HALL_CALL_REGISTERED, floor, callDir.ordinal());
+                    hallCallRegistered(floor, callDir);
+                }
+            }
+        }
+        logger.info("Button batch of {} presses. Registered:{}; Merged:{}; Rejected:{}", box(count), box(registered),
+                box(count - registered - rejected), box(rejected));
+        return accepted;
+    }
+
+    // Same as pressButtons(IntBuffer) for the events in an array
+    public long[] pressButtons(int[] events) {
+        return pressButtons(IntBuffer.wrap(events));
     }
 
     /**
      * Allows certain users to access specific floors based on elevator security.
      * @param card String containing user info.
-     * @param floors ArrayList of floors that user can access.
+     * @param floors FloorSet of floors that user can access.
      */
     @Override
-    public void authenticate(String card, ArrayList<Boolean> floors) {
+    public void authenticateFloors(String card, FloorSet floors) {
         logger.info("Attempting authentication for user:{}", card);
-        // User is authenticated based on elevator's authorizedUsers ArrayList and securityType
-        authenticated = securityType.authenticate(authorizedUsers.contains(card));
+        SecurityType securityType = settings.securityType();
+        // User is authenticated based on elevator's authorizedUsers set and securityType
+        authenticated = securityType.authenticate(settings.authorizedUsers().contains(card));
+        journal(authenticated ? JournalEventType.AUTH_SUCCEEDED : JournalEventType.AUTH_FAILED, currentFloor, 0);
+        if (!authenticated && metrics != null) {
+            metrics.authFailed();
+        }
         if (securityType.equals(SecurityType.SPECIFIED) && authenticated) {
             // User can access specified floors if authenticated and security is SPECIFIED
             authorizedFloors = floors;
@@ -114,7 +397,9 @@ public class ElevatorImpl implements Elevator {
         } else {
             // User can access all or no floors based on if authentication succeeds.
             logger.info(authenticated ? "User Authenticated. Can access all floor" : "User Unknown. Access Denied");
-            Collections.fill(authorizedFloors, authenticated);
+            authorizedFloors = authenticated ?
+                    FloorSet.all(authorizedFloors.size()) :
+                    FloorSet.none(authorizedFloors.size());
         }
     }
 
@@ -124,65 +409,143 @@ public class ElevatorImpl implements Elevator {
     @Override
     public void moveCurrentFloor() {
         logger.info("Attempting to move elevator.");
+        int defaultFloor = settings.defaultFloor();
+        int startDirection = direction;
         closeDoor();
         // Changes elevator to move UP or DOWN if it is set to stationary.
         if (direction == 0) {
             logger.info("Elevator is STATIONARY");
-            changeDirection();
-        }
-        /*
-         * Performs up to 3 recursive searches. If a requested floor is found, moves to that floor.
-         * First search checks for requested floors in current direction starting at currentFloor index
-         * Second search checks for requested floors in opposite direction starting at min. or max. index
-         *      depending on current direction.
-         * Third search repeats the second search, but flips direction and starting index.
-         * If no requested floors are found, elevator is set to default floor.
-         */
-
-        logger.info("Searching for available floor in current direction");
-        if (!findNextAvailableFloor(currentFloor)) {
-            logger.info("Match not found in current direction");
-            logger.info("Changing direction and checking from opposite end");
-            direction = direction * -1;
-            if (!findNextAvailableFloor(direction == -1 ? floors.size() - 1 : 0)) {
-                // Change direction and check from opposite end
-                logger.info("Match not found in opposite direction");
-                logger.info("Changing direction and checking from opposite end");
-                direction = direction * -1;
-                if (!findNextAvailableFloor(direction == -1 ? floors.size() - 1 : 0)) {
-                    // If no floors can be found in entire array, reset current floor and direction.
-                    logger.info("No requested floors found. Resetting elevator to default floor and direction");
-                    currentFloor = defaultFloor;
-                    changeDirection();
-                }
+            changeDirection(defaultFloor);
+        }
+        // The scheduling policy picks the next stop. If no requested floors are found, the car parks.
+        // A travelling car looks from the floor it is about to reach.
+        SchedulingPolicy.Stop stop =
+                schedulingPolicy.nextStop(floorsToVisit, currentFloor + travelDirection, direction);
+        travelDirection = 0;
+        if (stop == null) {
+            // If no floors can be found in entire array, park the car and reset direction.
+            currentFloor = parkingFloor(defaultFloor);
+            logger.info("No requested floors found. Parking elevator at floor:{}", box(currentFloor));
+            changeDirection(defaultFloor);
+            if (metrics != null) {
+                metrics.defaultFloorReset();
             }
+            return;
+        }
+        moveToStop(stop);
+        // Only counted when the car serves a stop in the opposite direction, not when it parks
+        if (metrics != null && startDirection != 0 && direction == -startDirection) {
+            metrics.directionReversed();
         }
     }
 
-    // Recursive helper method for moveCurrentFloor
-    private boolean findNextAvailableFloor(int index) {
-        if (index == floors.size() || index == -1) {
-            return false;
-        } else if (floorsToVisit.get(index).shouldStop(direction)) {
-            // Updates floorDirection based on current status, updates currentFloor, and opens door
-            floorsToVisit.set(index, floorsToVisit.get(index).visitFloor(direction));
-            logger.info("Floor found. Moving elevator to floor:{}", index);
-            currentFloor = index;
-            openDoor();
-            return true;
+    /*
+     * Real-time travel for CarController: floors between where moveCurrentFloor would take the car and the floor the
+     * car is at, or is about to reach while travelling.
+     */
+    int distanceToNextStop() {
+        return Math.abs(nextStopFloor() - (currentFloor + travelDirection));
+    }
+
+    // Real-time travel for CarController: closes the door and sets off towards the next stop
+    void depart() {
+        closeDoor();
+        setOff();
+    }
+
+    /*
+     * Real-time travel for CarController: the travelling car reaches the next floor without serving any request, and
+     * sets off from there towards where moveCurrentFloor would take it.
+     */
+    void passFloor() {
+        closeDoor();
+        currentFloor += travelDirection;
+        travelDirection = 0;
+        logger.info("Passing floor:{}", box(currentFloor));
+        setOff();
+    }
+
+    /*
+     * Real-time travel for CarController: true between depart and the moveCurrentFloor that serves the stop.
+     * While travelling the car has left currentFloor, so calls for it are registered instead of opening the door.
+     */
+    boolean isTravelling() {
+        return travelDirection != 0;
+    }
+
+    // Heads the car one floor towards its next stop. The car then heads the way it travels.
+    private void setOff() {
+        int travel = Integer.signum(nextStopFloor() - currentFloor);
+        if (travel == 0) {
+            return;
+        }
+        if (metrics != null && direction == -travel) {
+            metrics.directionReversed();
+        }
+        direction = travel;
+        travelDirection = travel;
+    }
+
+    // Floor moveCurrentFloor would take the car to, the next stop or the parking floor. Changes nothing.
+    private int nextStopFloor() {
+        int defaultFloor = settings.defaultFloor();
+        // A stationary car sets off the way changeDirection turns it
+        int heading = direction != 0 ? direction :
+                (currentFloor == 0 || currentFloor <= defaultFloor ? 1 : -1);
+        SchedulingPolicy.Stop stop = schedulingPolicy.nextStop(floorsToVisit, currentFloor + travelDirection, heading);
+        return stop == null ? parkingFloor(defaultFloor) : stop.floor();
+    }
+
+    /*
+     * Helper method for moveCurrentFloor. Moves the car to the stop chosen by the scheduling policy, clears the
+     * requests it serves and opens the door. A stop that serves no request is passed through with the door closed.
+     */
+    private void moveToStop(SchedulingPolicy.Stop stop) {
+        int floor = stop.floor();
+        direction = stop.direction();
+        currentFloor = floor;
+        boolean served = floorsToVisit.shouldStop(floor, direction);
+        boolean oppositeServed = stop.allCalls() && floorsToVisit.shouldStop(floor, -direction);
+        if (!served && !oppositeServed) {
+            logger.info("Passing through floor:{}", box(floor));
+            return;
         }
-        else {
-            return findNextAvailableFloor(index + direction);
+        // Updates floorDirection based on current status, updates currentFloor, and opens door
+        floorsToVisit.visitFloor(floor, direction);
+        logger.info("Floor found. Moving elevator to floor:{}", box(floor));
+        journal(JournalEventType.STOP_SERVED, floor, journalDirection(direction));
+        if (metrics != null) {
+            metrics.stopServed(floor, direction);
         }
+        if (oppositeServed) {
+            // Calls going the other way are answered at the same stop, so their waits end here too
+            floorsToVisit.visitFloor(floor, -direction);
+            journal(JournalEventType.STOP_SERVED, floor, journalDirection(-direction));
+            if (metrics != null) {
+                metrics.callsServed(floor, -direction);
+            }
+        }
+        openDoor();
+    }
+
+    // FloorDirection ordinal journaled for a direction of travel
+    private static int journalDirection(int direction) {
+        return direction == 1 ? FloorDirection.UP.ordinal() : FloorDirection.DOWN.ordinal();
     }
 
     // Called by interiorButtonPressed method. If authorized, requested floor (newFloor) will be added to floorButtons
     private void addFloor(int newFloor) {
         if (checkSecurity(newFloor)) {
             logger.info("User authorized");
-            if (currentFloor != newFloor) {
-                logger.info("Requesting Floor:{}", newFloor);
-                floorsToVisit.set(newFloor, chooseFloorDirection(newFloor));
+            if (currentFloor != newFloor || travelDirection != 0) {
+                logger.info("Requesting Floor:{}", box(newFloor));
+                FloorDirection floorDirection = chooseFloorDirection(newFloor);
+                floorsToVisit.set(newFloor, floorDirection);
+                journal(JournalEventType.CAR_CALL_REGISTERED, newFloor, floorDirection.ordinal());
+                if (metrics != null) {
+                    // The car call is served when the car reaches newFloor travelling towards it
+                    metrics.carCallRegistered(newFloor, tripDirection(newFloor));
+                }
                 deauthenticate();
             } else {
                 logger.info("User attempted to request current floor.");
@@ -191,16 +554,36 @@ public class ElevatorImpl implements Elevator {
         }
     }
 
+    // Destination dispatch: plans the stop for a rider who will board at origin. Access is checked when the rider boards.
+    void addDestination(int origin, int destination) {
+        logger.info("Destination Requested. Origin:{}; Destination:{}", box(origin), box(destination));
+        FloorDirection tripDirection = origin < destination ? FloorDirection.UP : FloorDirection.DOWN;
+        FloorDirection floorDirection = floorsToVisit.get(destination).chooseFloorDirection(tripDirection);
+        floorsToVisit.set(destination, floorDirection);
+        journal(JournalEventType.CAR_CALL_REGISTERED, destination, floorDirection.ordinal());
+        if (metrics != null) {
+            metrics.carCallRegistered(destination, tripDirection);
+        }
+    }
+
     // Helper method for addFloor. Determines which direction should be associated with floor
     private FloorDirection chooseFloorDirection(int newFloor) {
-        FloorDirection dirInRelationToCurrentFloor = (currentFloor < newFloor) ? FloorDirection.UP : FloorDirection.DOWN;
-        return floorsToVisit.get(newFloor).chooseFloorDirection(dirInRelationToCurrentFloor);
+        return floorsToVisit.get(newFloor).chooseFloorDirection(tripDirection(newFloor));
+    }
+
+    // Direction the car travels to reach floor. A travelling car has to come back for the floor it just left.
+    private FloorDirection tripDirection(int floor) {
+        if (floor == currentFloor) {
+            return travelDirection == 1 ? FloorDirection.DOWN : FloorDirection.UP;
+        }
+        return currentFloor < floor ? FloorDirection.UP : FloorDirection.DOWN;
     }
 
     private void openDoor() {
         if (!doorStatus.equals(DoorStatus.OPEN)) {
             logger.info("Opening Door");
             doorStatus = DoorStatus.OPEN;
+            journal(JournalEventType.DOOR_OPENED, currentFloor, 0);
         }
     }
 
@@ -208,42 +591,84 @@ public class ElevatorImpl implements Elevator {
         if (!doorStatus.equals(DoorStatus.CLOSED)) {
             logger.info("Closing Door");
             doorStatus = DoorStatus.CLOSED;
+            journal(JournalEventType.DOOR_CLOSED, currentFloor, 0);
         }
     }
 
-    // Returns maintenance logs as a list
+    /**
+     * Publishes the current state for other threads. Called by the thread that owns the car after changing it, such as
+     * the car thread of a CarController or the UI's event thread.
+     * @return ElevatorSnapshot of the current state. The previous snapshot, with the same version, if nothing changed.
+     */
+    public ElevatorSnapshot publishSnapshot() {
+        ElevatorSnapshot snapshot = ElevatorSnapshot.of(this, published);
+        published = snapshot;
+        return snapshot;
+    }
+
+    // Latest published state, readable from any thread. Null if the car never published.
+    public ElevatorSnapshot getSnapshot() {
+        return published;
+    }
+
+    // Returns the most recent maintenance logs as a list
     public List<String> getMaintenanceLogs() {
+        return getMaintenanceLogs(MAINTENANCE_LOG_LINES);
+    }
+
+    /**
+     * Returns the last lines of the maintenance logs without reading the whole log file.
+     * @param maxLines int maximum number of lines
+     * @return List of log lines, oldest first
+     */
+    public List<String> getMaintenanceLogs(int maxLines) {
         try {
-            return Files.readAllLines(Paths.get(PATH_TO_LOGS));
+            return maintenanceLogReader.tail(maxLines);
         } catch (IOException e) {
             logger.error(e.getMessage());
         }
         return new ArrayList<>(List.of("File could not be read"));
     }
 
+    // Reader for paging through or searching the maintenance logs by time
+    public MaintenanceLogReader getMaintenanceLogReader() {
+        return maintenanceLogReader;
+    }
+
+    /**
+     * Starts a new maintenance log. The log appender rolls the current log over into a compressed archive
+     * instead of the file being truncated underneath it.
+     */
     public void clearMaintenanceLogs() {
-        try {
-            BufferedWriter writer = Files.newBufferedWriter(Paths.get(PATH_TO_LOGS));
-            writer.write("");
-            writer.flush();
-        } catch (IOException e) {
-            logger.error(e.getMessage());
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        Appender appender = context.getConfiguration().getAppender(LOG_APPENDER);
+        if (appender instanceof RollingRandomAccessFileAppender rolling) {
+            rolling.getManager().rollover();
+        } else if (appender instanceof RollingFileAppender rolling) {
+            rolling.getManager().rollover();
+        } else {
+            logger.error("Maintenance logs are not written by a rolling appender");
         }
     }
 
     // Checks if user is authorized to access desiredFloor based on security.
     public boolean checkSecurity(int desiredFloor) {
         logger.info("Checking user authorization");
-        boolean authorized = securityType.isAuthorized(
+        ElevatorSettings settings = this.settings;
+        boolean authorized = settings.securityType().isAuthorized(
                 authenticated,
-                currentFloor > defaultFloor,
-                authorizedFloors.get(desiredFloor));
+                currentFloor > settings.defaultFloor(),
+                authorizedFloors.allows(desiredFloor));
         logger.info("User authorization {}", authorized ? "succeeded" : "failed");
         return authorized;
     }
 
 
     protected void changeDirection() {
+        changeDirection(settings.defaultFloor());
+    }
+
+    private void changeDirection(int defaultFloor) {
         logger.info("Changing elevator direction");
         if (((currentFloor == 0) ||
                 (direction == 0 && currentFloor <= defaultFloor))) {
@@ -257,14 +682,50 @@ public class ElevatorImpl implements Elevator {
 
     // Simulates calling emergency services. Clears floor requests, sets direction to stationary, closes door
     private void callEmergencyServices() {
+        journal(JournalEventType.EMERGENCY, currentFloor, 0);
         direction = 0;
         closeDoor();
-        Collections.fill(floorsToVisit, FloorDirection.NONE);
+        floorsToVisit.clearRequests();
+        if (metrics != null) {
+            metrics.requestsCleared();
+        }
     }
 
     private void deauthenticate() {
         logger.info("User deauthenticated");
         authenticated = false;
-        Collections.fill(authorizedFloors, false);
+        authorizedFloors = FloorSet.none(authorizedFloors.size());
+    }
+
+    private void hallCallRegistered(int floor, FloorDirection callDir) {
+        if (metrics != null) {
+            metrics.hallCallRegistered(floor, callDir);
+        }
+    }
+
+    // Codes of the buttons of one list of floors. A floor labelled like a command button is the floor.
+    private record ButtonMap(List<String> floors, int size, Map<String, Integer> codes) {
+        static ButtonMap of(List<String> floors) {
+            Map<String, Integer> codes = new HashMap<>();
+            for (int i = 0; i < COMMAND_LABELS.length; i++) {
+                codes.put(COMMAND_LABELS[i], -1 - i);
+            }
+            for (int i = floors.size() - 1; i >= 0; i--) {
+                // Going down, so the first of two floors with the same label wins, as with indexOf
+                codes.put(floors.get(i), i);
+            }
+            return new ButtonMap(floors, floors.size(), Map.copyOf(codes));
+        }
+    }
+
+    // Appends to the journal if one is attached. Journal failures are logged and never stop the elevator.
+    private void journal(JournalEventType type, int floor, int value) {
+        if (journal != null) {
+            try {
+                journal.append(type, floor, value);
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+            }
+        }
     }
 }
@@ -0,0 +1,218 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Wait-time and service-time instrumentation for one car.
+ * The car timestamps every hall call and car call when it is registered and records the elapsed time when a stop
+ * serves it: hall call to stop is the wait time, car call to stop is the service time. Both go into lock-free
+ * LatencyHistograms, and per floor and direction the number and total of wait times is kept so mean waits can be
+ * compared between floors. Counters track stops, direction reversals, default-floor resets and failed
+ * authentications.
+ * <p>
+ * Recording methods are called by the thread that owns the car. {@link #snapshot()} may be called from any thread
+ * at any time without blocking the car. Times are in the units of the clock, nanoseconds by default.
+ */
+public class ElevatorMetrics {
+    private static final long NOT_REGISTERED = Long.MIN_VALUE;
+    private static final int UP = 0;
+    private static final int DOWN = 1;
+    // Indexes of counters
+    private static final int HALL_CALLS = 0;
+    private static final int CAR_CALLS = 1;
+    private static final int STOPS = 2;
+    private static final int REVERSALS = 3;
+    private static final int DEFAULT_FLOOR_RESETS = 4;
+    private static final int AUTH_FAILURES = 5;
+    private static final int COUNTER_COUNT = 6;
+
+    private final int numFloors;
+    private final LongSupplier clock;
+    // Registration time of pending calls, indexed by floor * 2 + direction. Only touched by the car's thread.
+    private final long[] hallCallTimes;
+    private final long[] carCallTimes;
+
+    // Only the car's thread records, so values are published with release stores instead of atomic increments
+    private final LatencyHistogram waitTimes = LatencyHistogram.singleWriter();
+    private final LatencyHistogram serviceTimes = LatencyHistogram.singleWriter();
+    // Served hall calls and their summed wait, indexed by floor * 2 + direction
+    private final AtomicLongArray floorWaitCounts;
+    private final AtomicLongArray floorWaitTotals;
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTER_COUNT);
+
+    // Metrics timed with System.nanoTime
+    public ElevatorMetrics(int numFloors) {
+        this(numFloors, System::nanoTime);
+    }
+
+    /**
+     * @param numFloors int number of floors of the car
+     * @param clock LongSupplier of the current time, such as simulated time
+     */
+    public ElevatorMetrics(int numFloors, LongSupplier clock) {
+        if (numFloors <= 0 || clock == null) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.numFloors = numFloors;
+        this.clock = clock;
+        this.hallCallTimes = new long[numFloors * 2];
+        this.carCallTimes = new long[numFloors * 2];
+        Arrays.fill(hallCallTimes, NOT_REGISTERED);
+        Arrays.fill(carCallTimes, NOT_REGISTERED);
+        this.floorWaitCounts = new AtomicLongArray(numFloors * 2);
+        this.floorWaitTotals = new AtomicLongArray(numFloors * 2);
+    }
+
+    // A hall call was registered. Calls already waiting keep their original time.
+    void hallCallRegistered(int floor, FloorDirection direction) {
+        increment(counters, HALL_CALLS);
+        register(hallCallTimes, floor, direction);
+    }
+
+    // A car call was registered for a floor the car reaches travelling in direction
+    void carCallRegistered(int floor, FloorDirection direction) {
+        increment(counters, CAR_CALLS);
+        register(carCallTimes, floor, direction);
+    }
+
+    // The car stopped at floor while travelling in direction (1 up, -1 down)
+    void stopServed(int floor, int direction) {
+        increment(counters, STOPS);
+        callsServed(floor, direction);
+    }
+
+    // Calls at floor in direction were answered by a stop already counted, such as the opposite calls LOOK answers
+    void callsServed(int floor, int direction) {
+        int index = floor * 2 + (direction == 1 ? UP : DOWN);
+        long now = clock.getAsLong();
+        long registered = hallCallTimes[index];
+        if (registered != NOT_REGISTERED) {
+            long wait = now - registered;
+            waitTimes.record(wait);
+            increment(floorWaitCounts, index);
+            floorWaitTotals.lazySet(index, floorWaitTotals.get(index) + Math.max(0, wait));
+            hallCallTimes[index] = NOT_REGISTERED;
+        }
+        registered = carCallTimes[index];
+        if (registered != NOT_REGISTERED) {
+            serviceTimes.record(now - registered);
+            carCallTimes[index] = NOT_REGISTERED;
+        }
+    }
+
+    void directionReversed() {
+        increment(counters, REVERSALS);
+    }
+
+    void defaultFloorReset() {
+        increment(counters, DEFAULT_FLOOR_RESETS);
+    }
+
+    void authFailed() {
+        increment(counters, AUTH_FAILURES);
+    }
+
+    // Pending calls were dropped, such as by the emergency button. Their waits are not recorded.
+    void requestsCleared() {
+        Arrays.fill(hallCallTimes, NOT_REGISTERED);
+        Arrays.fill(carCallTimes, NOT_REGISTERED);
+    }
+
+    /**
+     * Returns metrics for a car whose requests were replaced. Calls pending before are dropped.
+     * @param numFloors int number of floors of the new requests
+     * @return ElevatorMetrics this if the number of floors is unchanged, otherwise new metrics with the same clock
+     */
+    ElevatorMetrics forFloors(int numFloors) {
+        if (numFloors != this.numFloors) {
+            return new ElevatorMetrics(numFloors, clock);
+        }
+        requestsCleared();
+        return this;
+    }
+
+    /**
+     * Returns the current values. Never blocks the car. Values recorded while the snapshot is taken may be
+     * partly included.
+     * @return Snapshot of counters, histograms and per-floor waits
+     */
+    public Snapshot snapshot() {
+        List<FloorWaits> floors = new ArrayList<>(numFloors);
+        for (int floor = 0; floor < numFloors; floor++) {
+            floors.add(new FloorWaits(floor,
+                    floorWaitCounts.get(floor * 2 + UP), mean(floor * 2 + UP),
+                    floorWaitCounts.get(floor * 2 + DOWN), mean(floor * 2 + DOWN)));
+        }
+        return new Snapshot(counters.get(HALL_CALLS), counters.get(CAR_CALLS), counters.get(STOPS),
+                counters.get(REVERSALS), counters.get(DEFAULT_FLOOR_RESETS), counters.get(AUTH_FAILURES),
+                Summary.of(waitTimes), Summary.of(serviceTimes), floors);
+    }
+
+    private void register(long[] registered, int floor, FloorDirection direction) {
+        long now = clock.getAsLong();
+        if ((direction == FloorDirection.UP || direction == FloorDirection.BOTH) &&
+                registered[floor * 2 + UP] == NOT_REGISTERED) {
+            registered[floor * 2 + UP] = now;
+        }
+        if ((direction == FloorDirection.DOWN || direction == FloorDirection.BOTH) &&
+                registered[floor * 2 + DOWN] == NOT_REGISTERED) {
+            registered[floor * 2 + DOWN] = now;
+        }
+    }
+
+    private static void increment(AtomicLongArray array, int index) {
+        array.lazySet(index, array.get(index) + 1);
+    }
+
+    private double mean(int index) {
+        long count = floorWaitCounts.get(index);
+        return count == 0 ? 0 : (double) floorWaitTotals.get(index) / count;
+    }
+
+    /**
+     * Metrics of a car at one point in time.
+     * @param hallCalls long hall calls registered
+     * @param carCalls long car calls registered
+     * @param stops long stops made
+     * @param reversals long changes between travelling up and down
+     * @param defaultFloorResets long returns to the default floor with no requests left
+     * @param authFailures long failed authentications
+     * @param waitTimes Summary of hall call wait times
+     * @param serviceTimes Summary of car call service times
+     * @param floors List of wait times per floor, indexed by floor
+     */
+    public record Snapshot(long hallCalls, long carCalls, long stops, long reversals, long defaultFloorResets,
+                           long authFailures, Summary waitTimes, Summary serviceTimes, List<FloorWaits> floors) {}
+
+    /**
+     * Distribution of recorded times.
+     * @param count long number of values
+     * @param mean double mean value
+     * @param p50 long median
+     * @param p99 long 99th percentile
+     * @param max long largest value
+     */
+    public record Summary(long count, double mean, long p50, long p99, long max) {
+        static Summary of(LatencyHistogram histogram) {
+            return new Summary(histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(99), histogram.getMax());
+        }
+    }
+
+    /**
+     * Hall calls served at one floor.
+     * @param floor int index of the floor
+     * @param upCalls long up calls served
+     * @param upMeanWait double mean wait of up calls
+     * @param downCalls long down calls served
+     * @param downMeanWait double mean wait of down calls
+     */
+    public record FloorWaits(int floor, long upCalls, double upMeanWait, long downCalls, double downMeanWait) {}
+}
@@ -0,0 +1,27 @@
+package com.project.app.elevator;
+
+import com.project.app.util.CredentialStore;
+import com.project.app.util.SecurityType;
+
+/**
+ * Configurable part of an elevator's state. ElevatorImpl holds one settings object and replaces it as a whole, so
+ * a config reload swaps security type, default floor and authorized users with a single reference write while the
+ * car keeps its queued stops.
+ * @param securityType SecurityType used by the elevator
+ * @param defaultFloor int index the elevator returns to when idle
+ * @param authorizedUsers CredentialStore of users that can be authenticated
+ */
+public record ElevatorSettings(SecurityType securityType, int defaultFloor, CredentialStore authorizedUsers) {
+
+    public ElevatorSettings withSecurityType(SecurityType securityType) {
+        return new ElevatorSettings(securityType, defaultFloor, authorizedUsers);
+    }
+
+    public ElevatorSettings withDefaultFloor(int defaultFloor) {
+        return new ElevatorSettings(securityType, defaultFloor, authorizedUsers);
+    }
+
+    public ElevatorSettings withAuthorizedUsers(CredentialStore authorizedUsers) {
+        return new ElevatorSettings(securityType, defaultFloor, authorizedUsers);
+    }
+}
@@ -0,0 +1,111 @@
+package com.project.app.elevator;
+
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorRequestTable;
+import com.project.app.util.SecurityType;
+
+/**
+ * Immutable copy of the state of a car that a display shows: position, direction, door, authentication, security
+ * type and requested floors. The thread that owns the car publishes one with {@link ElevatorImpl#publishSnapshot()}
+ * and any thread reads the latest with {@link ElevatorImpl#getSnapshot()}, a single volatile read.
+ * <p>
+ * The version goes up by one every time a snapshot with a different state is published, so a reader that still has
+ * the same version has nothing to redraw. Reading a snapshot never allocates.
+ * Not to be confused with {@link SnapshotFile}, which saves the full state of cars to disk.
+ */
+public final class ElevatorSnapshot {
+    private final long version;
+    private final int currentFloor;
+    private final int direction;
+    private final DoorStatus doorStatus;
+    private final boolean authenticated;
+    private final SecurityType securityType;
+    private final int numFloors;
+    // Copies of the request bitmaps, floor i is bit i
+    private final long[] up;
+    private final long[] down;
+
+    private ElevatorSnapshot(long version, ElevatorImpl car) {
+        this.version = version;
+        this.currentFloor = car.getCurrentFloor();
+        this.direction = car.getDirection();
+        this.doorStatus = car.getDoorStatus();
+        this.authenticated = Boolean.TRUE.equals(car.getAuthenticated());
+        this.securityType = car.getSecurityType();
+        this.numFloors = car.getFloorsToVisit().size();
+        this.up = car.getFloorsToVisit().upWords();
+        this.down = car.getFloorsToVisit().downWords();
+    }
+
+    // Snapshot of the car's current state. Returns previous unchanged if the car has not changed since.
+    static ElevatorSnapshot of(ElevatorImpl car, ElevatorSnapshot previous) {
+        if (previous == null) {
+            return new ElevatorSnapshot(1, car);
+        }
+        return previous.matches(car) ? previous : new ElevatorSnapshot(previous.version + 1, car);
+    }
+
+    private boolean matches(ElevatorImpl car) {
+        FloorRequestTable requests = car.getFloorsToVisit();
+        return currentFloor == car.getCurrentFloor() && direction == car.getDirection() &&
+                doorStatus == car.getDoorStatus() && authenticated == Boolean.TRUE.equals(car.getAuthenticated()) &&
+                securityType == car.getSecurityType() && requests.matchesWords(up, down);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getCurrentFloor() {
+        return currentFloor;
+    }
+
+    // 1 going up, -1 going down, 0 stationary
+    public int getDirection() {
+        return direction;
+    }
+
+    public DoorStatus getDoorStatus() {
+        return doorStatus;
+    }
+
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    public SecurityType getSecurityType() {
+        return securityType;
+    }
+
+    public int getNumFloors() {
+        return numFloors;
+    }
+
+    /**
+     * @param floor int index of the floor
+     * @return boolean true if the floor is requested by an UP hall call or a car call above the car
+     */
+    public boolean isUpRequested(int floor) {
+        return isSet(up, floor);
+    }
+
+    /**
+     * @param floor int index of the floor
+     * @return boolean true if the floor is requested by a DOWN hall call or a car call below the car
+     */
+    public boolean isDownRequested(int floor) {
+        return isSet(down, floor);
+    }
+
+    // Requested in either direction
+    public boolean isRequested(int floor) {
+        return isSet(up, floor) || isSet(down, floor);
+    }
+
+    private boolean isSet(long[] bits, int floor) {
+        if (floor < 0 || floor >= numFloors) {
+            throw new IndexOutOfBoundsException("Index " + floor + " out of bounds for length " + numFloors);
+        }
+        return (bits[floor >>> 6] & (1L << floor)) != 0;
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorRequestTable;
+
+/**
+ * Picks the request the car can serve at the lowest estimated cost: {@code FLOOR_TRAVEL_TIME} per floor of travel,
+ * plus {@code reversalCost} every time the car has to change direction, either to travel to the floor or to serve the
+ * call once there. A reversal cost of 0 behaves like shortest seek, and a very large one like collective control.
+ * The cost is in the same seconds as {@link Dispatcher#estimateTimeToArrival}.
+ */
+public class EtaCostPolicy implements SchedulingPolicy {
+    private final int reversalCost;
+
+    // Reversals cost the same as a stop
+    public EtaCostPolicy() {
+        this(Dispatcher.STOP_TIME);
+    }
+
+    /**
+     * @param reversalCost int estimated seconds lost each time the car changes direction
+     */
+    public EtaCostPolicy(int reversalCost) {
+        if (reversalCost < 0) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.reversalCost = reversalCost;
+    }
+
+    @Override
+    public Stop nextStop(FloorRequestTable requests, int currentFloor, int direction) {
+        Stop best = null;
+        int bestCost = Integer.MAX_VALUE;
+        // Every requested floor and direction is a candidate, found with the bitmap queries
+        for (int requestDirection = -1; requestDirection <= 1; requestDirection += 2) {
+            for (int floor = requests.nextAtOrAbove(0, requestDirection); floor != -1;
+                 floor = floor + 1 < requests.size() ? requests.nextAtOrAbove(floor + 1, requestDirection) : -1) {
+                int cost = cost(currentFloor, direction, floor, requestDirection);
+                if (cost < bestCost) {
+                    best = new Stop(floor, requestDirection);
+                    bestCost = cost;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Travel to floor, then serve the call there in requestDirection
+    int cost(int currentFloor, int direction, int floor, int requestDirection) {
+        int travel = Integer.signum(floor - currentFloor);
+        int heading = travel == 0 ? direction : travel;
+        int reversals = (heading != direction ? 1 : 0) + (requestDirection != heading ? 1 : 0);
+        return Math.abs(floor - currentFloor) * Dispatcher.FLOOR_TRAVEL_TIME + reversals * reversalCost;
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorRequestTable;
+
+/**
+ * LOOK as used for disk scheduling: the car keeps going while any floor ahead is requested, stops at every requested
+ * floor on the way whatever the direction of the call, and reverses at the last one. Every call at a stop is
+ * answered, so each floor is visited at most once per sweep. Riders going the other way are not carried towards their
+ * destination and have to call again.
+ */
+public class LookPolicy implements SchedulingPolicy {
+
+    @Override
+    public Stop nextStop(FloorRequestTable requests, int currentFloor, int direction) {
+        int floor = SchedulingPolicy.nextRequest(requests, currentFloor, direction);
+        if (floor == -1) {
+            direction = -direction;
+            floor = SchedulingPolicy.nextRequest(requests, currentFloor, direction);
+            if (floor == -1) {
+                return null;
+            }
+        }
+        // The car turns around at the last requested floor in its direction, unless the only call there is to carry
+        // on in that direction
+        boolean last = floor + direction < 0 || floor + direction >= requests.size() ||
+                SchedulingPolicy.nextRequest(requests, floor + direction, direction) == -1;
+        boolean turn = last && requests.shouldStop(floor, -direction);
+        return new Stop(floor, turn ? -direction : direction, true);
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorSet;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import static com.project.app.elevator.RecordingFormat.writeVarLong;
+
+/**
+ * Elevator that forwards every input to an ElevatorImpl and streams a recording of it.
+ * Each record holds the input, the time since the previous input and the car's state afterwards, so a Replayer can
+ * feed the same inputs to a fresh car and find the first point where the two behave differently.
+ * Each record is encoded whole into a scratch buffer and then written in one piece, so a failed input never leaves a
+ * partial record behind. Records are written through a buffer and never kept in memory.
+ */
+public class RecordingElevator implements Elevator, Closeable {
+    private final ElevatorImpl elevator;
+    private final DataOutputStream out;
+    // Record being encoded, copied to out once complete
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(64);
+    private final DataOutputStream record = new DataOutputStream(scratch);
+    private long lastInput;
+
+    /**
+     * @param elevator ElevatorImpl receiving the inputs
+     * @param out OutputStream the recording is written to. Closed by close().
+     * @throws IOException if the header cannot be written
+     */
+    public RecordingElevator(ElevatorImpl elevator, OutputStream out) throws IOException {
+        this.elevator = elevator;
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.out.writeInt(RecordingFormat.MAGIC);
+        this.out.writeByte(RecordingFormat.VERSION);
+        this.lastInput = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void callButtonPressed(int floor, FloorDirection callDir) {
+        try {
+            start(RecordingFormat.CALL);
+            writeVarLong(record, floor);
+            record.writeByte(callDir == null ? -1 : callDir.ordinal());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        record(() -> elevator.callButtonPressed(floor, callDir));
+    }
+
+    @Override
+    public synchronized void interiorButtonPressed(String button) {
+        try {
+            start(RecordingFormat.INTERIOR);
+            RecordingFormat.writeString(record, button);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        record(() -> elevator.interiorButtonPressed(button));
+    }
+
+    @Override
+    public synchronized void authenticateFloors(String card, FloorSet floors) {
+        try {
+            start(RecordingFormat.AUTHENTICATE);
+            RecordingFormat.writeString(record, card);
+            RecordingFormat.writeFloors(record, floors);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        record(() -> elevator.authenticateFloors(card, floors));
+    }
+
+    @Override
+    public synchronized void moveCurrentFloor() {
+        try {
+            start(RecordingFormat.MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        record(elevator::moveCurrentFloor);
+    }
+
+    public ElevatorImpl getElevator() {
+        return elevator;
+    }
+
+    // Writes buffered records to the underlying stream
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    // Starts a new record in the scratch buffer, dropping any record that failed to encode
+    private void start(byte type) throws IOException {
+        long now = System.nanoTime();
+        scratch.reset();
+        record.writeByte(type);
+        writeVarLong(record, now - lastInput);
+        lastInput = now;
+    }
+
+    /*
+     * Runs the input, adds its outcome and the resulting state to the record and writes the record.
+     * Exceptions from the car are recorded and rethrown.
+     */
+    private void record(Runnable input) {
+        byte outcome = RecordingFormat.OK;
+        try {
+            input.run();
+        } catch (RuntimeException e) {
+            outcome = RecordingFormat.FAILED;
+            throw e;
+        } finally {
+            try {
+                record.writeByte(outcome);
+                RecordingFormat.writeState(record, RecordingFormat.stateOf(elevator));
+                scratch.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.app.elevator;
+
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorSet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Binary layout shared by RecordingElevator and Replayer.
+ * Header: int MAGIC, byte VERSION. Then one record per input:
+ *   byte input type, varlong nanoseconds since the previous input, input arguments, byte outcome, car state.
+ * Car state after the input: varint currentFloor, byte direction, byte doorStatus ordinal, byte authenticated,
+ *   int hash of the floor requests.
+ * Strings and floor sets are preceded by a byte that is 0 for null. Strings are a varint length and UTF-8 bytes.
+ */
+final class RecordingFormat {
+    static final int MAGIC = 0x454C5243;
+    static final byte VERSION = 2;
+
+    static final byte CALL = 1;
+    static final byte INTERIOR = 2;
+    static final byte AUTHENTICATE = 3;
+    static final byte MOVE = 4;
+
+    static final byte OK = 0;
+    static final byte FAILED = 1;
+
+    private RecordingFormat() {}
+
+    static void writeState(DataOutput out, CarState state) throws IOException {
+        writeVarLong(out, state.currentFloor());
+        out.writeByte(state.direction());
+        out.writeByte(state.doorStatus().ordinal());
+        out.writeBoolean(state.authenticated());
+        out.writeInt(state.requestsHash());
+    }
+
+    static CarState readState(DataInput in) throws IOException {
+        return new CarState((int) readVarLong(in), in.readByte(), DoorStatus.values()[in.readByte()],
+                in.readBoolean(), in.readInt());
+    }
+
+    static CarState stateOf(ElevatorImpl elevator) {
+        return new CarState(elevator.getCurrentFloor(), elevator.getDirection(), elevator.getDoorStatus(),
+                Boolean.TRUE.equals(elevator.getAuthenticated()), elevator.getFloorsToVisit().hashCode());
+    }
+
+    static FloorDirection direction(int ordinal) {
+        return FloorDirection.values()[ordinal];
+    }
+
+    // Unlike writeUTF, takes null and strings of any length
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long length = readVarLong(in);
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Malformed recording");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeFloors(DataOutput out, FloorSet floors) throws IOException {
+        out.writeBoolean(floors != null);
+        if (floors == null) {
+            return;
+        }
+        writeVarLong(out, floors.size());
+        for (int i = 0; i < floors.size(); i += 8) {
+            int packed = 0;
+            for (int bit = 0; bit < 8 && i + bit < floors.size(); bit++) {
+                packed |= floors.allows(i + bit) ? 1 << bit : 0;
+            }
+            out.writeByte(packed);
+        }
+    }
+
+    static FloorSet readFloors(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        boolean[] floors = new boolean[(int) readVarLong(in)];
+        for (int i = 0; i < floors.length; i += 8) {
+            int packed = in.readUnsignedByte();
+            for (int bit = 0; bit < 8 && i + bit < floors.length; bit++) {
+                floors[i + bit] = (packed & (1 << bit)) != 0;
+            }
+        }
+        return FloorSet.of(floors);
+    }
+
+    // Unsigned LEB128, 7 bits per byte
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed recording");
+    }
+
+    // State compared between recording and replay. requestsHash is FloorRequestTable.hashCode()
+    record CarState(int currentFloor, int direction, DoorStatus doorStatus, boolean authenticated, int requestsHash) {}
+}
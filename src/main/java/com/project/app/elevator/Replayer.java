@@ -0,0 +1,124 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Feeds a recording made by RecordingElevator into a fresh car as fast as possible and compares the car's state after
+ * every input with the recorded state. The recording is streamed, so its size is not limited by memory.
+ */
+public class Replayer {
+    // Differences kept in the result. Every difference is counted.
+    private static final int MAX_DIFFERENCES = 100;
+
+    private static final Logger logger = LogManager.getLogger(Replayer.class);
+
+    private Replayer() {}
+
+    /**
+     * Replays a recording.
+     * @param in InputStream holding the recording. Not closed.
+     * @param elevator ElevatorImpl built with the same configuration and starting state as the recorded car
+     * @return ReplayResult with the number of inputs and the states that differ
+     * @throws IOException if the recording cannot be read or is not a recording
+     */
+    public static ReplayResult replay(InputStream in, ElevatorImpl elevator) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        if (data.readInt() != RecordingFormat.MAGIC || data.readByte() != RecordingFormat.VERSION) {
+            throw new IOException("Not an elevator recording");
+        }
+        long start = System.nanoTime();
+        long inputs = 0;
+        long recordedTime = 0;
+        long mismatches = 0;
+        List<String> differences = new ArrayList<>();
+        while (true) {
+            int type = data.read();
+            if (type == -1) {
+                break;
+            }
+            recordedTime += RecordingFormat.readVarLong(data);
+            String input;
+            byte outcome = RecordingFormat.OK;
+            try {
+                switch (type) {
+                    case RecordingFormat.CALL -> {
+                        int floor = (int) RecordingFormat.readVarLong(data);
+                        int direction = data.readByte();
+                        FloorDirection callDir = direction == -1 ? null : RecordingFormat.direction(direction);
+                        input = "callButtonPressed(" + floor + ", " + callDir + ")";
+                        outcome = apply(() -> elevator.callButtonPressed(floor, callDir));
+                    }
+                    case RecordingFormat.INTERIOR -> {
+                        String button = RecordingFormat.readString(data);
+                        input = "interiorButtonPressed(" + button + ")";
+                        outcome = apply(() -> elevator.interiorButtonPressed(button));
+                    }
+                    case RecordingFormat.AUTHENTICATE -> {
+                        String card = RecordingFormat.readString(data);
+                        FloorSet floors = RecordingFormat.readFloors(data);
+                        input = "authenticate(" + card + ")";
+                        outcome = apply(() -> elevator.authenticateFloors(card, floors));
+                    }
+                    case RecordingFormat.MOVE -> {
+                        input = "moveCurrentFloor()";
+                        outcome = apply(elevator::moveCurrentFloor);
+                    }
+                    default -> throw new IOException("Unknown input type " + type);
+                }
+                byte recordedOutcome = data.readByte();
+                RecordingFormat.CarState recorded = RecordingFormat.readState(data);
+                RecordingFormat.CarState replayed = RecordingFormat.stateOf(elevator);
+                if (recordedOutcome != outcome || !recorded.equals(replayed)) {
+                    mismatches++;
+                    if (differences.size() < MAX_DIFFERENCES) {
+                        differences.add(String.format("Input %d %s: recorded %s%s, replayed %s%s", inputs, input,
+                                recorded, recordedOutcome == RecordingFormat.FAILED ? " (failed)" : "",
+                                replayed, outcome == RecordingFormat.FAILED ? " (failed)" : ""));
+                    }
+                }
+            } catch (EOFException e) {
+                // Recording was cut off in the middle of a record
+                logger.warn("Recording ends in the middle of input:{}", box(inputs));
+                break;
+            }
+            inputs++;
+        }
+        return new ReplayResult(inputs, mismatches, differences, recordedTime, System.nanoTime() - start);
+    }
+
+    private static byte apply(Runnable input) {
+        try {
+            input.run();
+            return RecordingFormat.OK;
+        } catch (RuntimeException e) {
+            return RecordingFormat.FAILED;
+        }
+    }
+
+    /**
+     * @param inputs long number of inputs replayed
+     * @param mismatches long number of inputs after which the replayed state differed from the recording
+     * @param differences List of the first differences, described
+     * @param recordedTime long nanoseconds the recorded inputs spanned
+     * @param replayTime long nanoseconds the replay took
+     */
+    public record ReplayResult(long inputs, long mismatches, List<String> differences, long recordedTime,
+                               long replayTime) {
+        public boolean matches() {
+            return mismatches == 0;
+        }
+    }
+}
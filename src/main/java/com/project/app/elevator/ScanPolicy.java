@@ -0,0 +1,31 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorRequestTable;
+
+/**
+ * SCAN: collective control that always travels to the end floor before reversing, instead of turning at the last
+ * call. Passing through the end floor only opens the door if it was requested. Sweeps are longer than with
+ * {@link CollectiveControlPolicy}, but the time for a car to come back to any floor is more even.
+ */
+public class ScanPolicy implements SchedulingPolicy {
+
+    @Override
+    public Stop nextStop(FloorRequestTable requests, int currentFloor, int direction) {
+        if (requests.hasNoRequests()) {
+            return null;
+        }
+        for (int sweep = 0; sweep < 2; sweep++) {
+            int floor = SchedulingPolicy.nextRequest(requests, currentFloor, direction, direction);
+            if (floor != -1) {
+                return new Stop(floor, direction);
+            }
+            int end = direction == 1 ? requests.size() - 1 : 0;
+            if (currentFloor != end) {
+                // Go to the end floor and turn around there
+                return new Stop(end, -direction);
+            }
+            direction = -direction;
+        }
+        return null;
+    }
+}
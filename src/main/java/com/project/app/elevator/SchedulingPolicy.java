@@ -0,0 +1,81 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorRequestTable;
+
+/**
+ * Chooses where a car goes next. ElevatorImpl keeps the requests, the door, security and parking, and asks its policy
+ * for the next stop every time it moves. Policies only read the request table, so one instance can be shared by any
+ * number of cars.
+ * <ul>
+ *     <li>{@link CollectiveControlPolicy}: the default. Serves calls in the direction of travel and reverses at the
+ *     furthest call.</li>
+ *     <li>{@link LookPolicy}: stops at every requested floor on the way and answers all calls there.</li>
+ *     <li>{@link ScanPolicy}: collective control that always sweeps to the end floor before reversing.</li>
+ *     <li>{@link ShortestSeekPolicy}: the nearest requested floor.</li>
+ *     <li>{@link EtaCostPolicy}: the request with the lowest travel time plus a cost per reversal.</li>
+ * </ul>
+ */
+public interface SchedulingPolicy {
+
+    /**
+     * Picks the next stop. Called by moveCurrentFloor after the door closes, once the car has a direction.
+     * @param requests FloorRequestTable of pending requests, not modified by the policy
+     * @param currentFloor int index of the car's floor
+     * @param direction int 1 if the car is going up, -1 if going down
+     * @return Stop to serve next, or null if there is nowhere to go
+     */
+    Stop nextStop(FloorRequestTable requests, int currentFloor, int direction);
+
+    /**
+     * Returns a policy by name, as used on the command line and in benchmarks.
+     * @param name String one of collective, look, scan, shortest-seek or eta
+     * @return SchedulingPolicy new policy with default settings
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    static SchedulingPolicy of(String name) {
+        return switch (name) {
+            case "collective" -> new CollectiveControlPolicy();
+            case "look" -> new LookPolicy();
+            case "scan" -> new ScanPolicy();
+            case "shortest-seek" -> new ShortestSeekPolicy();
+            case "eta" -> new EtaCostPolicy();
+            default -> throw new IllegalArgumentException("Invalid Argument Given");
+        };
+    }
+
+    /**
+     * Requested floor nearest to {@code from} (inclusive) in {@code searchDirection}, in any direction.
+     * @return int index of the floor, -1 if none
+     */
+    static int nextRequest(FloorRequestTable requests, int from, int searchDirection) {
+        int up = nextRequest(requests, from, searchDirection, 1);
+        int down = nextRequest(requests, from, searchDirection, -1);
+        if (up == -1 || down == -1) {
+            return Math.max(up, down);
+        }
+        return searchDirection == 1 ? Math.min(up, down) : Math.max(up, down);
+    }
+
+    /**
+     * Floor nearest to {@code from} (inclusive) in {@code searchDirection} requested in {@code requestDirection}.
+     * @return int index of the floor, -1 if none
+     */
+    static int nextRequest(FloorRequestTable requests, int from, int searchDirection, int requestDirection) {
+        return searchDirection == 1 ?
+                requests.nextAtOrAbove(from, requestDirection) :
+                requests.nextAtOrBelow(from, requestDirection);
+    }
+
+    /**
+     * Where a car goes next.
+     * @param floor int index of the floor
+     * @param direction int direction of the car once it has stopped, 1 or -1. Requests in this direction are served.
+     * @param allCalls boolean requests in both directions are served. A stop that serves no request is passed through
+     *      without opening the door.
+     */
+    record Stop(int floor, int direction, boolean allCalls) {
+        public Stop(int floor, int direction) {
+            this(floor, direction, false);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorRequestTable;
+
+/**
+ * Shortest seek time first: the nearest requested floor, ties going to the floor in the current direction.
+ * The car serves the call in the direction it was travelling to reach the floor, or the other call if that is the only
+ * one. Travel is short, but calls far from a busy area can wait a long time.
+ */
+public class ShortestSeekPolicy implements SchedulingPolicy {
+
+    @Override
+    public Stop nextStop(FloorRequestTable requests, int currentFloor, int direction) {
+        int ahead = SchedulingPolicy.nextRequest(requests, currentFloor, direction);
+        int behind = SchedulingPolicy.nextRequest(requests, currentFloor - direction, -direction);
+        int floor;
+        int travel;
+        if (ahead == -1 && behind == -1) {
+            return null;
+        } else if (behind == -1 || (ahead != -1 && Math.abs(ahead - currentFloor) <= Math.abs(behind - currentFloor))) {
+            floor = ahead;
+            travel = direction;
+        } else {
+            floor = behind;
+            travel = -direction;
+        }
+        return new Stop(floor, requests.shouldStop(floor, travel) ? travel : -travel);
+    }
+}
@@ -0,0 +1,298 @@
+package com.project.app.elevator;
+
+import com.project.app.util.CredentialStore;
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorRequestTable;
+import com.project.app.util.FloorSet;
+import com.project.app.util.SecurityType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Binary snapshot of the full state of a group of cars, so a controller can resume where another one stopped.
+ * The file is written to a temporary file and moved into place, so readers never see half a snapshot. Reading maps
+ * the file and checks its version and CRC32 before decoding. {@link #restore} falls back to rebuilding the cars
+ * from their JSON configs if the snapshot is missing or corrupt.
+ * <p>
+ * Layout (big-endian): int MAGIC, short VERSION, short reserved, long creation time (epoch ms), int payload length,
+ * int CRC32 of the payload. The payload holds the authorized user tables (one per distinct CredentialStore, so cars
+ * sharing a roster store it once), then one record per car: floor labels, security type, default floor, user table
+ * index, current floor, direction, door status, authenticated, up-request, down-request and authorized-floor
+ * bitmaps. Event journals, metrics, scheduling policies and adaptive parking are not part of the snapshot: restored
+ * cars use collective control and park at their default floor until the caller attaches those again.
+ */
+public final class SnapshotFile {
+    static final int MAGIC = 0x454C534E;
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+
+    private static final Logger logger = LogManager.getLogger(SnapshotFile.class);
+
+    private SnapshotFile() {}
+
+    /**
+     * Writes a snapshot of cars that are not being changed by other threads.
+     * @param file Path of the snapshot, replaced atomically
+     * @param cars List of cars to save
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void write(Path file, List<ElevatorImpl> cars) throws IOException {
+        List<CarImage> images = new ArrayList<>(cars.size());
+        for (ElevatorImpl car : cars) {
+            images.add(capture(car));
+        }
+        writeImages(file, images);
+    }
+
+    /**
+     * Reads a snapshot.
+     * @param file Path of the snapshot
+     * @return List of cars in the saved state, in the saved order
+     * @throws IOException if the file cannot be read, or is not a valid snapshot
+     */
+    public static List<ElevatorImpl> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Corrupt snapshot: file too short");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Corrupt snapshot: not a snapshot file");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            buffer.getShort();
+            buffer.getLong();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length != buffer.remaining()) {
+                throw new IOException("Corrupt snapshot: expected " + length + " bytes, found " + buffer.remaining());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Corrupt snapshot: checksum mismatch");
+            }
+            try {
+                return decode(buffer);
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException |
+                     NegativeArraySizeException e) {
+                throw new IOException("Corrupt snapshot: " + e, e);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot, or rebuilds the cars another way if it cannot be used.
+     * @param file Path of the snapshot
+     * @param fallback Fallback that builds the cars from their configs
+     * @return List of cars from the snapshot, or from the fallback
+     * @throws IOException if the snapshot cannot be used and the fallback fails
+     */
+    public static List<ElevatorImpl> restore(Path file, Fallback fallback) throws IOException {
+        if (Files.exists(file)) {
+            try {
+                List<ElevatorImpl> cars = read(file);
+                logger.info("Restored {} cars from snapshot {}", box(cars.size()), file);
+                return cars;
+            } catch (IOException e) {
+                logger.error("Snapshot {} could not be used, rebuilding cars from configs: {}", file, e.getMessage());
+            }
+        }
+        return fallback.build();
+    }
+
+    // Copies the state of a car, called on the thread that owns the car
+    static CarImage capture(ElevatorImpl car) {
+        ElevatorSettings settings = car.getSettings();
+        return new CarImage(car.getFloors(), settings.securityType(), settings.defaultFloor(),
+                settings.authorizedUsers(), car.getCurrentFloor(), car.getDirection(), car.getDoorStatus(),
+                Boolean.TRUE.equals(car.getAuthenticated()), car.getFloorsToVisit().upWords(),
+                car.getFloorsToVisit().downWords(),
+                car.getAuthorizedFloors() == null ? FloorSet.none(car.getFloors().size()) : car.getAuthorizedFloors());
+    }
+
+    static void writeImages(Path file, List<CarImage> images) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        // Cars sharing a CredentialStore share one user table
+        Map<CredentialStore, Integer> tables = new IdentityHashMap<>();
+        List<CredentialStore> tableOrder = new ArrayList<>();
+        for (CarImage image : images) {
+            if (tables.putIfAbsent(image.authorizedUsers(), tables.size()) == null) {
+                tableOrder.add(image.authorizedUsers());
+            }
+        }
+        out.writeInt(tableOrder.size());
+        for (CredentialStore users : tableOrder) {
+            List<String> names = users == null ? List.of() : List.copyOf(users);
+            out.writeInt(names.size());
+            for (String name : names) {
+                writeString(out, name);
+            }
+        }
+
+        out.writeInt(images.size());
+        for (CarImage image : images) {
+            out.writeInt(image.floors().size());
+            for (String floor : image.floors()) {
+                writeString(out, floor);
+            }
+            out.writeByte(image.securityType().ordinal());
+            out.writeInt(image.defaultFloor());
+            out.writeInt(tables.get(image.authorizedUsers()));
+            out.writeInt(image.currentFloor());
+            out.writeByte(image.direction());
+            out.writeByte(image.doorStatus().ordinal());
+            out.writeBoolean(image.authenticated());
+            writeWords(out, image.upWords());
+            writeWords(out, image.downWords());
+            writeWords(out, image.authorizedFloors().toWords());
+        }
+        out.flush();
+
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) 0)
+                .putLong(System.currentTimeMillis())
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<ElevatorImpl> decode(ByteBuffer in) {
+        List<CredentialStore> tables = new ArrayList<>();
+        for (int table = in.getInt(); table > 0; table--) {
+            CredentialStore users = new CredentialStore();
+            for (int user = in.getInt(); user > 0; user--) {
+                users.add(readString(in));
+            }
+            tables.add(users);
+        }
+
+        int carCount = in.getInt();
+        List<ElevatorImpl> cars = new ArrayList<>(carCount);
+        for (int car = 0; car < carCount; car++) {
+            int numFloors = in.getInt();
+            ArrayList<String> floors = new ArrayList<>(numFloors);
+            for (int i = 0; i < numFloors; i++) {
+                floors.add(readString(in));
+            }
+            SecurityType securityType = SecurityType.values()[in.get()];
+            int defaultFloor = in.getInt();
+            CredentialStore users = tables.get(in.getInt());
+            int currentFloor = in.getInt();
+            int direction = in.get();
+            DoorStatus doorStatus = DoorStatus.values()[in.get()];
+            boolean authenticated = in.get() != 0;
+            FloorRequestTable requests = FloorRequestTable.fromWords(numFloors, readWords(in, numFloors),
+                    readWords(in, numFloors));
+            FloorSet authorizedFloors = FloorSet.fromWords(numFloors, readWords(in, numFloors));
+            if (currentFloor < 0 || currentFloor >= numFloors) {
+                throw new IllegalArgumentException("current floor out of range");
+            }
+            if (defaultFloor < 0 || defaultFloor >= numFloors) {
+                throw new IllegalArgumentException("default floor out of range");
+            }
+            if (direction < -1 || direction > 1) {
+                throw new IllegalArgumentException("direction out of range");
+            }
+
+            ElevatorImpl elevator = ElevatorImpl.builder()
+                    .floors(floors)
+                    .securityType(securityType)
+                    .defaultFloor(defaultFloor)
+                    .floorsToVisit(requests)
+                    .authorizedFloors(authorizedFloors)
+                    .doorStatus(doorStatus)
+                    .authenticated(authenticated)
+                    .direction(direction)
+                    .currentFloor(currentFloor)
+                    .build();
+            elevator.applySettings(new ElevatorSettings(securityType, defaultFloor, users));
+            cars.add(elevator);
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("unexpected bytes after the last car");
+        }
+        return cars;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] encoded = new byte[in.getInt()];
+        in.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    private static void writeWords(DataOutputStream out, long[] words) throws IOException {
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    private static long[] readWords(ByteBuffer in, int numFloors) {
+        long[] words = new long[(numFloors + 63) >>> 6];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.getLong();
+        }
+        return words;
+    }
+
+    /**
+     * Builds the cars when no usable snapshot exists, normally from their JSON configs.
+     */
+    @FunctionalInterface
+    public interface Fallback {
+        List<ElevatorImpl> build() throws IOException;
+    }
+
+    // State of one car at the time it was captured. Bitmaps are copies. Floor labels and user tables are shared with
+    // the car, they do not change while a controller runs the car.
+    record CarImage(List<String> floors, SecurityType securityType, int defaultFloor, CredentialStore authorizedUsers,
+                    int currentFloor, int direction, DoorStatus doorStatus, boolean authenticated, long[] upWords,
+                    long[] downWords, FloorSet authorizedFloors) {}
+}
@@ -0,0 +1,207 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.TrafficPattern;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Streaming estimate of where and in which direction hall calls are made.
+ * Every call adds to an exponentially decayed count for its floor and direction, so calls from one half-life ago
+ * count half as much as calls now. Counts use forward decay: a call at time t adds {@code e^(k(t - t0))} for a fixed
+ * origin t0, which keeps recording O(1) with no pass over the other floors. The origin is moved forward, rescaling
+ * every count, before the weights grow too large.
+ * <p>
+ * The decayed rates classify the current {@link TrafficPattern} and pick parking floors for idle cars: the lobby
+ * during up-peak, the floors with the most DOWN calls during down-peak, and the floors with the most calls otherwise.
+ * Cars sharing a detector park at different floors. Not thread-safe: calls are recorded and cars parked by the thread
+ * that owns the cars.
+ */
+public class TrafficPatternDetector {
+    // Call rates below this many calls per hour are IDLE
+    static final double IDLE_CALLS_PER_HOUR = 20;
+    // Share of calls that makes a peak
+    static final double UP_PEAK_SHARE = 0.5;
+    static final double DOWN_PEAK_SHARE = 0.7;
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+    // Largest exponent before counts are rescaled, well below the double range
+    private static final double MAX_EXPONENT = 64;
+
+    private final int numFloors;
+    private final int lobbyFloor;
+    private final double decay;
+    private final long halfLife;
+    private final LongSupplier clock;
+
+    // Decayed calls, indexed by floor * 2 (UP) and floor * 2 + 1 (DOWN), scaled by e^(-k(t - origin))
+    private final double[] calls;
+    private double totalCalls;
+    private double lobbyUpCalls;
+    private double downCalls;
+    private long origin;
+
+    /**
+     * Detector timed with System.nanoTime.
+     * @param numFloors int number of floors
+     * @param lobbyFloor int index of the lobby
+     * @param halfLife long milliseconds after which a call counts half
+     */
+    public TrafficPatternDetector(int numFloors, int lobbyFloor, long halfLife) {
+        this(numFloors, lobbyFloor, halfLife, () -> System.nanoTime() / 1_000_000);
+    }
+
+    /**
+     * @param numFloors int number of floors
+     * @param lobbyFloor int index of the lobby
+     * @param halfLife long milliseconds after which a call counts half
+     * @param clock LongSupplier of the current time in milliseconds, such as simulated time
+     */
+    public TrafficPatternDetector(int numFloors, int lobbyFloor, long halfLife, LongSupplier clock) {
+        if (numFloors < 2 || lobbyFloor < 0 || lobbyFloor >= numFloors || halfLife <= 0 || clock == null) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.numFloors = numFloors;
+        this.lobbyFloor = lobbyFloor;
+        this.halfLife = halfLife;
+        this.decay = Math.log(2) / halfLife;
+        this.clock = clock;
+        this.calls = new double[numFloors * 2];
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Records a hall call. O(1) except when the counts are rescaled, about once every 90 half-lives.
+     * @param floor int index of the floor
+     * @param callDir FloorDirection UP or DOWN
+     */
+    public void recordCall(int floor, FloorDirection callDir) {
+        long now = clock.getAsLong();
+        double exponent = decay * (now - origin);
+        if (exponent > MAX_EXPONENT) {
+            rescale(now);
+            exponent = 0;
+        }
+        double weight = Math.exp(exponent);
+        boolean up = callDir == FloorDirection.UP;
+        calls[floor * 2 + (up ? 0 : 1)] += weight;
+        totalCalls += weight;
+        if (up && floor == lobbyFloor) {
+            lobbyUpCalls += weight;
+        } else if (!up && floor > lobbyFloor) {
+            downCalls += weight;
+        }
+    }
+
+    /**
+     * Classifies the recent calls.
+     * @return TrafficPattern IDLE if calls are rare, UP_PEAK or DOWN_PEAK if calls from or towards the lobby dominate,
+     *      otherwise INTERFLOOR
+     */
+    public TrafficPattern getPattern() {
+        if (getCallsPerHour() < IDLE_CALLS_PER_HOUR) {
+            return TrafficPattern.IDLE;
+        } else if (lobbyUpCalls >= totalCalls * UP_PEAK_SHARE) {
+            return TrafficPattern.UP_PEAK;
+        } else if (downCalls >= totalCalls * DOWN_PEAK_SHARE) {
+            return TrafficPattern.DOWN_PEAK;
+        }
+        return TrafficPattern.INTERFLOOR;
+    }
+
+    // Decayed rate of all hall calls
+    public double getCallsPerHour() {
+        return toCallsPerHour(totalCalls);
+    }
+
+    // Decayed rate of hall calls at one floor in one direction
+    public double getCallsPerHour(int floor, FloorDirection callDir) {
+        return toCallsPerHour(calls[floor * 2 + (callDir == FloorDirection.UP ? 0 : 1)]);
+    }
+
+    /**
+     * Picks the floor where an idle car should wait for the next call. Cars are spread over the floors expected to
+     * call: car {@code car} of {@code cars} takes the floor at the {@code (car + 0.5) / cars} quantile of the call
+     * rates, so one car parks at the rate-weighted median floor, the floor with the least expected travel.
+     * O(floors), only run when a car goes idle.
+     * @param car int index of the car in its group
+     * @param cars int number of cars sharing the detector
+     * @param defaultFloor int floor used when the traffic is IDLE
+     * @return int index of the parking floor
+     */
+    public int parkingFloor(int car, int cars, int defaultFloor) {
+        TrafficPattern pattern = getPattern();
+        if (pattern == TrafficPattern.IDLE) {
+            return defaultFloor;
+        } else if (pattern == TrafficPattern.UP_PEAK) {
+            return lobbyFloor;
+        }
+        boolean downOnly = pattern == TrafficPattern.DOWN_PEAK;
+        double total = 0;
+        for (int floor = 0; floor < numFloors; floor++) {
+            total += weight(floor, downOnly);
+        }
+        double target = total * (car + 0.5) / cars;
+        double sum = 0;
+        for (int floor = 0; floor < numFloors; floor++) {
+            sum += weight(floor, downOnly);
+            if (sum >= target) {
+                return floor;
+            }
+        }
+        return defaultFloor;
+    }
+
+    // Parking for one car of a group, handed to the car so it can park itself when it runs out of requests
+    public Parking parking(int car, int cars) {
+        if (car < 0 || car >= cars) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        return new Parking(this, car, cars);
+    }
+
+    public int getNumFloors() {
+        return numFloors;
+    }
+
+    public int getLobbyFloor() {
+        return lobbyFloor;
+    }
+
+    public long getHalfLife() {
+        return halfLife;
+    }
+
+    private double weight(int floor, boolean downOnly) {
+        return downOnly ? calls[floor * 2 + 1] : calls[floor * 2] + calls[floor * 2 + 1];
+    }
+
+    // Counts are stored scaled to the origin, so the rate now is the count decayed from the origin to now
+    private double toCallsPerHour(double count) {
+        return count * Math.exp(-decay * (clock.getAsLong() - origin)) * decay * MILLIS_PER_HOUR;
+    }
+
+    // Moves the origin to now, decaying every count to it
+    private void rescale(long now) {
+        double factor = Math.exp(-decay * (now - origin));
+        for (int i = 0; i < calls.length; i++) {
+            calls[i] *= factor;
+        }
+        totalCalls *= factor;
+        lobbyUpCalls *= factor;
+        downCalls *= factor;
+        origin = now;
+    }
+
+    /**
+     * Where one car of a group parks.
+     * @param detector TrafficPatternDetector shared by the group
+     * @param car int index of the car in its group
+     * @param cars int number of cars in the group
+     */
+    public record Parking(TrafficPatternDetector detector, int car, int cars) {
+        public int floor(int defaultFloor) {
+            return detector.parkingFloor(car, cars, defaultFloor);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.app.simulation;
+
+import com.project.app.config.ConfigRepository;
+import com.project.app.config.ElevatorConfig;
+import com.project.app.config.RosterImporter;
+import com.project.app.elevator.ElevatorImpl;
+import com.project.app.elevator.SchedulingPolicy;
+import com.project.app.util.CredentialStore;
+import com.project.app.util.FloorSet;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Runs the discrete-event simulation without the Swing UI.
+ * Arguments:
+ * {@code <elevator config> <cars> <hours> <calls per hour> [seed] [roster] [traffic] [dispatch] [parking] [policy]},
+ * for example
+ * {@code none_8 4 24 2000}.
+ * A roster file (see RosterImporter) replaces the authorized users of every car, and riders badge in as its users in
+ * turn with their own floor permissions. {@code -} keeps the configured users.
+ * Traffic is {@code interfloor} (default) or {@code uppeak}, where every trip starts at the cars' default floor. Dispatch is
+ * {@code collective} (default), with UP/DOWN hall calls, or {@code destination}, where riders enter their destination
+ * at the hall. Parking is {@code default}, where idle cars return to their default floor, or {@code adaptive}, where
+ * they park at the floors expected to call next. Policy is the name of a SchedulingPolicy, {@code collective} by default.
+ * Elevator logging is limited to warnings so that a day of traffic is not bound by log writes.
+ */
+public class HeadlessSimulation {
+    private static final String CONFIG_DIRECTORY_PATH = "config";
+
+    private static final Logger logger = LogManager.getLogger(HeadlessSimulation.class);
+
+    public static void main(String[] args) throws IOException {
+        String elevatorName = args.length > 0 ? args[0] : "none_8";
+        int numCars = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        double hours = args.length > 2 ? Double.parseDouble(args[2]) : 24;
+        double callsPerHour = args.length > 3 ? Double.parseDouble(args[3]) : 200;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        boolean upPeak = args.length > 6 && args[6].equals("uppeak");
+        boolean destinationDispatch = args.length > 7 && args[7].equals("destination");
+        boolean adaptiveParking = args.length > 8 && args[8].equals("adaptive");
+        SchedulingPolicy policy = SchedulingPolicy.of(args.length > 9 ? args[9] : "collective");
+
+        List<ElevatorImpl> cars = buildCars(elevatorName, numCars);
+        Map<String, FloorSet> roster = args.length > 5 && !args[5].equals("-") ?
+                importRoster(Paths.get(args[5]), cars) : null;
+        Configurator.setLevel("com.project.app", Level.WARN);
+        int numFloors = cars.get(0).getFloors().size();
+        SimulationEngine engine = SimulationEngine.builder()
+                .cars(cars)
+                .traffic(upPeak ?
+                        RandomTrafficGenerator.upPeak(numFloors, cars.get(0).getDefaultFloor(), callsPerHour, seed) :
+                        RandomTrafficGenerator.interfloor(numFloors, callsPerHour, seed))
+                .badge(cars.get(0).getAuthorizedUsers().stream().findFirst().orElse(null))
+                .roster(roster)
+                .destinationDispatch(destinationDispatch)
+                .adaptiveParking(adaptiveParking)
+                .schedulingPolicy(policy)
+                .build();
+        System.out.println(engine.run((long) (hours * 3_600_000)));
+        // Flushes the async loggers before the JVM (or exec:java) tears the classloader down
+        LogManager.shutdown();
+    }
+
+    // Builds numCars identical cars from one elevator config file
+    static List<ElevatorImpl> buildCars(String elevatorName, int numCars) throws IOException {
+        ElevatorConfig config;
+        try (ConfigRepository configs = new ConfigRepository(Paths.get(CONFIG_DIRECTORY_PATH))) {
+            config = configs.getElevator(elevatorName);
+        }
+        List<ElevatorImpl> cars = new ArrayList<>();
+        for (int i = 0; i < numCars; i++) {
+            cars.add(config.buildElevator());
+        }
+        return cars;
+    }
+
+    /*
+     * Replaces the authorized users of every car with the users in a roster file and returns each user's floor
+     * permissions, in file order. A user listed twice keeps the permissions of the last row.
+     */
+    static Map<String, FloorSet> importRoster(Path roster, List<ElevatorImpl> cars) throws IOException {
+        Map<String, FloorSet> users = new LinkedHashMap<>();
+        RosterImporter.ImportReport report = new RosterImporter(cars.get(0).getFloors().size())
+                .importRoster(roster, users::put);
+        logger.info("Imported {} users, rejected {} rows", box(report.imported()), box(report.rejected()));
+        for (RosterImporter.RowError error : report.errors()) {
+            logger.warn("Roster line {}: {}", box(error.line()), error.message());
+        }
+        CredentialStore authorizedUsers = new CredentialStore(users.keySet());
+        for (ElevatorImpl car : cars) {
+            car.applySettings(car.getSettings().withAuthorizedUsers(authorizedUsers));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.app.simulation;
+
+/**
+ * A rider in the headless simulation.
+ * @param arrivalTime time the rider reaches the hall and presses the call button, in milliseconds
+ * @param origin int index of the floor the rider is waiting on
+ * @param destination int index of the floor the rider wants to reach
+ */
+public record Passenger(long arrivalTime, int origin, int destination) {
+
+    // 1 if the rider is going up, -1 if going down
+    public int direction() {
+        return destination > origin ? 1 : -1;
+    }
+}
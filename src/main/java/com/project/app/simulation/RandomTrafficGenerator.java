@@ -0,0 +1,78 @@
+package com.project.app.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates riders with Poisson arrivals. A share of trips starts at the lobby (up-peak traffic) and a share ends
+ * at the lobby (down-peak traffic). The remaining trips are between uniformly chosen floors (interfloor traffic).
+ * The same seed always produces the same riders.
+ */
+public class RandomTrafficGenerator implements TrafficGenerator {
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    private final int numFloors;
+    private final int lobbyFloor;
+    private final double meanInterArrivalTime;
+    private final double fromLobbyShare;
+    private final double toLobbyShare;
+    private final SplittableRandom random;
+    private double time;
+
+    /**
+     * @param numFloors int number of floors, at least 2
+     * @param lobbyFloor int index of the lobby
+     * @param callsPerHour double average number of riders per hour
+     * @param fromLobbyShare double share of trips starting at the lobby
+     * @param toLobbyShare double share of trips ending at the lobby
+     * @param seed long random seed
+     * @throws IllegalArgumentException if the arguments can't describe any traffic
+     */
+    public RandomTrafficGenerator(int numFloors, int lobbyFloor, double callsPerHour,
+                                  double fromLobbyShare, double toLobbyShare, long seed) {
+        if (numFloors < 2 || lobbyFloor < 0 || lobbyFloor >= numFloors || callsPerHour <= 0 ||
+                fromLobbyShare < 0 || toLobbyShare < 0 || fromLobbyShare + toLobbyShare > 1) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.numFloors = numFloors;
+        this.lobbyFloor = lobbyFloor;
+        this.meanInterArrivalTime = MILLIS_PER_HOUR / callsPerHour;
+        this.fromLobbyShare = fromLobbyShare;
+        this.toLobbyShare = toLobbyShare;
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Interfloor traffic only: every trip is between two uniformly chosen floors
+    public static RandomTrafficGenerator interfloor(int numFloors, double callsPerHour, long seed) {
+        return new RandomTrafficGenerator(numFloors, 0, callsPerHour, 0, 0, seed);
+    }
+
+    // Morning up-peak: every trip starts at the lobby and goes to a uniformly chosen floor
+    public static RandomTrafficGenerator upPeak(int numFloors, int lobbyFloor, double callsPerHour, long seed) {
+        return new RandomTrafficGenerator(numFloors, lobbyFloor, callsPerHour, 1, 0, seed);
+    }
+
+    @Override
+    public Passenger next() {
+        time += -Math.log(1 - random.nextDouble()) * meanInterArrivalTime;
+        int origin;
+        int destination;
+        double pattern = random.nextDouble();
+        if (pattern < fromLobbyShare) {
+            origin = lobbyFloor;
+            destination = otherFloor(lobbyFloor);
+        } else if (pattern < fromLobbyShare + toLobbyShare) {
+            destination = lobbyFloor;
+            origin = otherFloor(lobbyFloor);
+        } else {
+            origin = random.nextInt(numFloors);
+            destination = otherFloor(origin);
+        }
+        return new Passenger((long) time, origin, destination);
+    }
+
+    // Uniformly chosen floor that is not excluded
+    private int otherFloor(int excluded) {
+        int floor = random.nextInt(numFloors - 1);
+        return floor >= excluded ? floor + 1 : floor;
+    }
+}
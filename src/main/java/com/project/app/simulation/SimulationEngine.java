@@ -0,0 +1,347 @@
+package com.project.app.simulation;
+
+import com.project.app.elevator.Dispatcher;
+import com.project.app.elevator.ElevatorImpl;
+import com.project.app.elevator.ElevatorMetrics;
+import com.project.app.elevator.SchedulingPolicy;
+import com.project.app.elevator.TrafficPatternDetector;
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorSet;
+import com.project.app.util.LatencyHistogram;
+import lombok.Builder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Headless discrete-event simulation of a group of cars. Events are kept in a priority queue ordered by simulated time,
+ * so a day of traffic runs as fast as the cars can be scheduled. Cars are plain ElevatorImpl objects driven through
+ * a Dispatcher: hall calls use callButtonPressed, riders press interior buttons after boarding and
+ * moveCurrentFloor is called whenever a car is ready to leave a floor.
+ * With destination dispatch, riders enter their destination at the hall instead, wait for the car they were assigned
+ * and find their destination already requested when they board.
+ * All times are in milliseconds of simulated time.
+ */
+public class SimulationEngine {
+    private static final int ARRIVAL = 0;
+    private static final int CAR_ARRIVED = 1;
+    private static final int CAR_READY = 2;
+    // Half-life of the call rates used for adaptive parking
+    private static final long PARKING_HALF_LIFE = 300_000;
+
+    private final Dispatcher dispatcher;
+    private final List<ElevatorImpl> cars;
+    private final TrafficGenerator traffic;
+    private final long floorTravelTime;
+    private final long doorDwellTime;
+    private final int carCapacity;
+    private final String badge;
+    // Roster badges riders take in turn, with the floors each may access. Empty to use badge for every rider.
+    private final String[] rosterNames;
+    private final FloorSet[] rosterFloors;
+    private int nextBadge;
+    private final boolean destinationDispatch;
+    private final int numFloors;
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>(
+            Comparator.comparingLong(Event::time).thenComparingLong(Event::sequence));
+    // Riders waiting at the hall, indexed by queue(car, floor, direction)
+    private final List<ArrayDeque<Passenger>> waiting;
+    private final CarState[] carStates;
+    private long now;
+    private long sequence;
+
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LatencyHistogram tripTimes = new LatencyHistogram();
+    private long riders;
+    private long delivered;
+    private long denied;
+    private long moves;
+
+    /**
+     * @param cars List of cars serving the same floors
+     * @param traffic TrafficGenerator producing riders
+     * @param floorTravelTime long time to travel one floor, defaults to 2 s
+     * @param doorDwellTime long time the door stays open at a stop, defaults to 10 s
+     * @param carCapacity int maximum riders per car, defaults to 16
+     * @param badge String card used to authenticate riders when the car's security requires it
+     * @param roster Map of badge holders to the floors they may access. Riders take these badges in turn instead of
+     *      badge, so SPECIFIED security limits them to their own floors. Null to use badge for every rider.
+     * @param destinationDispatch boolean riders enter their destination at the hall instead of pressing UP or DOWN
+     * @param adaptiveParking boolean idle cars park where calls are expected instead of at their default floor
+     * @param schedulingPolicy SchedulingPolicy given to every car, null to keep the cars' own policies
+     */
+    @Builder
+    SimulationEngine(List<ElevatorImpl> cars, TrafficGenerator traffic, long floorTravelTime, long doorDwellTime,
+                     int carCapacity, String badge, Map<String, FloorSet> roster, boolean destinationDispatch, boolean adaptiveParking,
+                     SchedulingPolicy schedulingPolicy) {
+        this.cars = new ArrayList<>(cars);
+        this.dispatcher = new Dispatcher(cars, () -> now);
+        this.traffic = traffic;
+        this.floorTravelTime = floorTravelTime > 0 ? floorTravelTime : 2_000;
+        this.doorDwellTime = doorDwellTime > 0 ? doorDwellTime : 10_000;
+        this.carCapacity = carCapacity > 0 ? carCapacity : 16;
+        this.badge = badge;
+        this.rosterNames = roster == null ? new String[0] : roster.keySet().toArray(new String[0]);
+        this.rosterFloors = new FloorSet[rosterNames.length];
+        for (int i = 0; i < rosterNames.length; i++) {
+            rosterFloors[i] = roster.get(rosterNames[i]);
+        }
+        this.destinationDispatch = destinationDispatch;
+        this.dispatcher.setCarCapacity(this.carCapacity);
+        this.numFloors = cars.get(0).getFloors().size();
+        for (ElevatorImpl car : cars) {
+            if (schedulingPolicy != null) {
+                car.setSchedulingPolicy(schedulingPolicy);
+            }
+            // Cars without metrics are timed in simulated milliseconds
+            if (car.getMetrics() == null) {
+                car.setMetrics(new ElevatorMetrics(numFloors, () -> now));
+            }
+        }
+        if (adaptiveParking) {
+            dispatcher.enableAdaptiveParking(new TrafficPatternDetector(numFloors, cars.get(0).getDefaultFloor(),
+                    PARKING_HALF_LIFE, () -> now));
+        }
+        // Riders wait for a particular car with destination dispatch, for any car otherwise
+        int queues = (destinationDispatch ? cars.size() : 1) * numFloors * 2;
+        this.waiting = new ArrayList<>(queues);
+        for (int i = 0; i < queues; i++) {
+            waiting.add(new ArrayDeque<>());
+        }
+        this.carStates = new CarState[cars.size()];
+        for (int i = 0; i < carStates.length; i++) {
+            carStates[i] = new CarState(numFloors);
+        }
+    }
+
+    /**
+     * Generates riders for {@code duration} and runs until every rider has been delivered or turned away.
+     * @param duration long length of the traffic period
+     * @return SimulationReport throughput and wait statistics
+     */
+    public SimulationReport run(long duration) {
+        long start = System.nanoTime();
+        scheduleNextArrival(duration);
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            now = event.time();
+            switch (event.type()) {
+                case ARRIVAL -> {
+                    passengerArrived(event.passenger());
+                    scheduleNextArrival(duration);
+                }
+                case CAR_ARRIVED -> carArrived(event.car());
+                case CAR_READY -> carReady(event.car());
+            }
+        }
+        long wallClock = (System.nanoTime() - start) / 1_000_000;
+        return new SimulationReport(
+                now,
+                riders,
+                delivered,
+                denied,
+                now == 0 ? 0 : delivered * 3_600_000.0 / now,
+                waitTimes.getMean(),
+                waitTimes.getValueAtPercentile(99),
+                waitTimes.getMax(),
+                tripTimes.getMean(),
+                moves,
+                wallClock);
+    }
+
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    private void scheduleNextArrival(long duration) {
+        Passenger passenger = traffic.next();
+        if (passenger.arrivalTime() < duration) {
+            schedule(passenger.arrivalTime(), ARRIVAL, -1, passenger);
+        }
+    }
+
+    // Rider reaches the hall and presses the call button
+    private void passengerArrived(Passenger passenger) {
+        riders++;
+        dispatch(passenger);
+    }
+
+    // Places the rider's hall call and wakes or boards the car that will serve it
+    private void dispatch(Passenger passenger) {
+        int car = destinationDispatch ?
+                dispatcher.destinationCallPressed(passenger.origin(), passenger.destination()) :
+                dispatcher.callButtonPressed(passenger.origin(), toFloorDirection(passenger.direction()));
+        waiting.get(queue(car, passenger.origin(), passenger.direction())).add(passenger);
+        CarState state = carStates[car];
+        ElevatorImpl elevator = cars.get(car);
+        if (!state.busy) {
+            state.busy = true;
+            if (elevator.getCurrentFloor() == passenger.origin()) {
+                // Car is idle on this floor and opened its door
+                state.dwelling = true;
+                board(car, passenger.origin(), passenger.direction());
+                schedule(now + doorDwellTime, CAR_READY, car, null);
+            } else {
+                schedule(now, CAR_READY, car, null);
+            }
+        } else if (state.dwelling && elevator.getCurrentFloor() == passenger.origin() &&
+                elevator.getDirection() == passenger.direction()) {
+            // Car is stopped here with its door open and going the rider's way
+            board(car, passenger.origin(), passenger.direction());
+        }
+    }
+
+    // Door has finished its dwell. Sends the car to its next stop, or lets it idle.
+    private void carReady(int car) {
+        ElevatorImpl elevator = cars.get(car);
+        CarState state = carStates[car];
+        int from = elevator.getCurrentFloor();
+        state.dwelling = false;
+        if (elevator.getFloorsToVisit().hasNoRequests() && from == elevator.getParkingFloor()) {
+            // Riders the car arrived facing away from board before it idles
+            board(car, from, 1);
+            board(car, from, -1);
+            if (elevator.getFloorsToVisit().hasNoRequests()) {
+                state.busy = false;
+            } else {
+                state.dwelling = true;
+                schedule(now + doorDwellTime, CAR_READY, car, null);
+            }
+            return;
+        }
+        dispatcher.moveCar(car);
+        moves++;
+        int to = elevator.getCurrentFloor();
+        if (to != from) {
+            // Riders left behind call again once the car has gone
+            recall(car, from);
+        }
+        schedule(now + Math.abs(to - from) * floorTravelTime, CAR_ARRIVED, car, null);
+    }
+
+    // Car reaches the floor chosen by moveCurrentFloor. Riders get off, waiting riders going the same way get on.
+    private void carArrived(int car) {
+        ElevatorImpl elevator = cars.get(car);
+        CarState state = carStates[car];
+        int floor = elevator.getCurrentFloor();
+        if (elevator.getDoorStatus() != DoorStatus.OPEN) {
+            // Car went to its parking floor without stopping for a request
+            schedule(now, CAR_READY, car, null);
+            return;
+        }
+        List<Passenger> leaving = state.riders.get(floor);
+        for (Passenger passenger : leaving) {
+            tripTimes.record(now - passenger.arrivalTime());
+            delivered++;
+        }
+        state.load -= leaving.size();
+        leaving.clear();
+        state.dwelling = true;
+        int direction = elevator.getDirection();
+        if (direction == 0) {
+            board(car, floor, 1);
+            board(car, floor, -1);
+        } else {
+            board(car, floor, direction);
+        }
+        schedule(now + doorDwellTime, CAR_READY, car, null);
+    }
+
+    // Moves riders waiting on floor in direction into the car and presses their destination buttons
+    private void board(int car, int floor, int direction) {
+        ElevatorImpl elevator = cars.get(car);
+        CarState state = carStates[car];
+        ArrayDeque<Passenger> queue = waiting.get(queue(car, floor, direction));
+        while (!queue.isEmpty() && state.load < carCapacity) {
+            Passenger passenger = queue.poll();
+            int destination = passenger.destination();
+            if (!elevator.checkSecurity(destination)) {
+                authenticate(elevator);
+                if (!elevator.checkSecurity(destination)) {
+                    denied++;
+                    continue;
+                }
+            }
+            waitTimes.record(now - passenger.arrivalTime());
+            if (!destinationDispatch || !elevator.getFloorsToVisit().shouldStop(destination, passenger.direction())) {
+                elevator.interiorButtonPressed(destination);
+            }
+            state.riders.get(destination).add(passenger);
+            state.load++;
+        }
+    }
+
+    // Badges a rider in, with the next roster badge or with badge and access to every floor
+    private void authenticate(ElevatorImpl elevator) {
+        if (rosterNames.length == 0) {
+            elevator.authenticateFloors(badge, FloorSet.all(numFloors));
+            return;
+        }
+        elevator.authenticateFloors(rosterNames[nextBadge], rosterFloors[nextBadge]);
+        nextBadge = (nextBadge + 1) % rosterNames.length;
+    }
+
+    // Presses the call buttons again for riders still waiting on a floor
+    private void recall(int car, int floor) {
+        if (destinationDispatch) {
+            // Each rider the car left behind enters their destination again
+            for (int direction = -1; direction <= 1; direction += 2) {
+                ArrayDeque<Passenger> queue = waiting.get(queue(car, floor, direction));
+                for (int i = queue.size(); i > 0; i--) {
+                    dispatch(queue.poll());
+                }
+            }
+            return;
+        }
+        if (floor < numFloors - 1 && !waiting.get(queue(0, floor, 1)).isEmpty()) {
+            wake(dispatcher.callButtonPressed(floor, FloorDirection.UP));
+        }
+        if (floor > 0 && !waiting.get(queue(0, floor, -1)).isEmpty()) {
+            wake(dispatcher.callButtonPressed(floor, FloorDirection.DOWN));
+        }
+    }
+
+    private void wake(int car) {
+        if (!carStates[car].busy) {
+            carStates[car].busy = true;
+            schedule(now, CAR_READY, car, null);
+        }
+    }
+
+    private void schedule(long time, int type, int car, Passenger passenger) {
+        events.add(new Event(time, sequence++, type, car, passenger));
+    }
+
+    private static FloorDirection toFloorDirection(int direction) {
+        return direction == 1 ? FloorDirection.UP : FloorDirection.DOWN;
+    }
+
+    private int queue(int car, int floor, int direction) {
+        return (destinationDispatch ? car * numFloors * 2 : 0) + floor * 2 + (direction == 1 ? 0 : 1);
+    }
+
+    private record Event(long time, long sequence, int type, int car, Passenger passenger) {}
+
+    // Engine-side state of a car that ElevatorImpl does not track
+    private static class CarState {
+        private final List<List<Passenger>> riders;
+        private int load;
+        // Car is moving or stopped at a floor
+        private boolean busy;
+        // Car is stopped at a floor with its door open
+        private boolean dwelling;
+
+        CarState(int numFloors) {
+            riders = new ArrayList<>(numFloors);
+            for (int i = 0; i < numFloors; i++) {
+                riders.add(new ArrayList<>());
+            }
+        }
+    }
+}
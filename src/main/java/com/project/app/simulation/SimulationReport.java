@@ -0,0 +1,44 @@
+package com.project.app.simulation;
+
+/**
+ * Results of a headless simulation run. Times are in milliseconds of simulated time.
+ * @param simulatedTime time of the last event
+ * @param riders number of riders generated
+ * @param delivered number of riders that reached their destination
+ * @param denied number of riders turned away by elevator security
+ * @param throughputPerHour riders delivered per simulated hour
+ * @param averageWait mean time from hall call to boarding
+ * @param p99Wait 99th percentile of the wait
+ * @param maxWait worst-case wait
+ * @param averageTripTime mean time from hall call to arrival at the destination
+ * @param moves number of times a car was moved
+ * @param wallClockMillis real time spent running the simulation
+ */
+public record SimulationReport(
+        long simulatedTime,
+        long riders,
+        long delivered,
+        long denied,
+        double throughputPerHour,
+        double averageWait,
+        long p99Wait,
+        long maxWait,
+        double averageTripTime,
+        long moves,
+        long wallClockMillis) {
+
+    @Override
+    public String toString() {
+        return String.format(
+                "riders: %d, delivered: %d, denied: %d, moves: %d%n" +
+                "throughput: %.1f riders/hour over %.2f simulated hours%n" +
+                "wait: average %.1f s, p99 %.1f s, worst %.1f s%n" +
+                "trip: average %.1f s%n" +
+                "wall clock: %d ms",
+                riders, delivered, denied, moves,
+                throughputPerHour, simulatedTime / 3_600_000.0,
+                averageWait / 1000, p99Wait / 1000.0, maxWait / 1000.0,
+                averageTripTime / 1000,
+                wallClockMillis);
+    }
+}
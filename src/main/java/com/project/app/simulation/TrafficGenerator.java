@@ -0,0 +1,13 @@
+package com.project.app.simulation;
+
+/**
+ * Source of riders for the headless simulation.
+ */
+public interface TrafficGenerator {
+
+    /**
+     * Returns the next rider. Arrival times never decrease between calls.
+     * @return Passenger next rider to arrive
+     */
+    Passenger next();
+}
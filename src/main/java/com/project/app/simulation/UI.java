@@ -1,10 +1,12 @@
 package com.project.app.simulation;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.app.config.ConfigReloader;
+import com.project.app.config.ConfigRepository;
+import com.project.app.config.ElevatorConfig;
+import com.project.app.config.UserConfig;
 import com.project.app.elevator.ElevatorImpl;
-import com.project.app.util.DoorStatus;
+import com.project.app.elevator.ElevatorMetrics;
+import com.project.app.elevator.ElevatorSnapshot;
 import com.project.app.util.FloorDirection;
 import com.project.app.util.SecurityType;
 
@@ -12,17 +14,15 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 public class UI extends JFrame {
     // Constants
-    private final String ELEVATOR_CONFIG_DIRECTORY_PATH = "config/elevator/";
-    private final String USERS_CONFIG_DIRECTORY_PATH = "config/users/";
+    private final String CONFIG_DIRECTORY_PATH = "config";
     private final String ELEVATOR_SIMULATION_TITLE = "Elevator Simulation";
 
     // Swing Components
@@ -53,10 +53,18 @@ public class UI extends JFrame {
     static JLabel maintenanceLabel;
 
     // Elevator Variables
+    private final ConfigRepository configs;
+    // Applies config file changes to the current elevator and user
+    private ConfigReloader reloader;
     private ElevatorImpl elevator;
     private User user;
     private String simulationName;
     private int numFloors;
+    // Car state on screen, null when the screen does not show the car yet
+    private ElevatorSnapshot drawn;
+    // Unlit button colors, read once instead of from a new button on every update
+    private final Color callButtonColor = new Button().getBackground();
+    private final Color floorButtonColor = new JButton().getBackground();
 
     UI(int X_DIM, int Y_DIM) throws IOException {
         // Create and Configure Frame
@@ -66,6 +74,7 @@ public class UI extends JFrame {
         setLayout(new BorderLayout());
 
         // Initialize Elevator and User
+        configs = new ConfigRepository(Paths.get(CONFIG_DIRECTORY_PATH));
         elevator = buildElevator(elevatorSetup());
         user = buildUser(userSetup());
 
@@ -120,7 +129,7 @@ public class UI extends JFrame {
         statsLabel = new JLabel(simulationName, SwingConstants.CENTER);
         statsPanel.setBackground(Color.LIGHT_GRAY);
         statsPanel.setBorder(BorderFactory.createLineBorder(Color.black, 2));
-        statsPanelCenter = new JPanel(new GridLayout(2, 3));
+        statsPanelCenter = new JPanel(new GridLayout(2, 4));
         initializeStatsTextAreas();
         for (JTextArea ta: statsTextAreas) {
             statsPanelCenter.add(ta);
@@ -162,10 +171,9 @@ public class UI extends JFrame {
             @Override
             public void actionPerformed(ActionEvent e) {
                 JTextArea logsTA = new JTextArea(50, 1);
+                // Shows the tail of the log, the reader never loads the whole file
                 List<String> logs = elevator.getMaintenanceLogs();
-                for (int i = 0; i < logs.size(); i++) {
-                    logsTA.append(logs.get(i) + "\n");
-                }
+                logsTA.setText(String.join("\n", logs));
                 JScrollPane scrollPane = new JScrollPane(logsTA);
                 scrollPane.setPreferredSize(new Dimension(750, 250));
                 JOptionPane.showMessageDialog(
@@ -219,16 +227,19 @@ public class UI extends JFrame {
             // Configure Down Call Buttons
             c.gridx = 1;
             c.gridy = gridy;
+            int floor = i;
             if (i != 0) {
-                downButtons.get(i).setBackground(new Button().getBackground());
+                downButtons.get(i).setBackground(callButtonColor);
                 downButtons.get(i).setOpaque(true);
                 downButtons.get(i).addActionListener(new ActionListener() {
                     @Override
                     public void actionPerformed(ActionEvent e) {
                         // Updates elevator when down button is pressed. Updates button color to indicate a press.
-                        elevator.callButtonPressed(downButtons.indexOf(e.getSource()), FloorDirection.DOWN);
-                        updateDownCallButtons(downButtons.indexOf(e.getSource()));
-                        updateStats();
+                        elevator.callButtonPressed(floor, FloorDirection.DOWN);
+                        redraw();
+                        if (drawn.isDownRequested(floor)) {
+                            downButtons.get(floor).setBackground(Color.YELLOW);
+                        }
                     }
                 });
                 elevatorPanelCenter.add(downButtons.get(i), c);
@@ -237,15 +248,17 @@ public class UI extends JFrame {
             c.gridx = 2;
             c.gridy = gridy;
             if (i != numFloors - 1) {
-                upButtons.get(i).setBackground(new Button().getBackground());
+                upButtons.get(i).setBackground(callButtonColor);
                 upButtons.get(i).setOpaque(true);
                 upButtons.get(i).addActionListener(new ActionListener() {
                     @Override
                     public void actionPerformed(ActionEvent e) {
                         // Updates elevator when up button is pressed. Updates button color to indicate a press.
-                        elevator.callButtonPressed(upButtons.indexOf(e.getSource()), FloorDirection.UP);
-                        updateUpCallButtons(upButtons.indexOf(e.getSource()));
-                        updateStats();
+                        elevator.callButtonPressed(floor, FloorDirection.UP);
+                        redraw();
+                        if (drawn.isUpRequested(floor)) {
+                            upButtons.get(floor).setBackground(Color.YELLOW);
+                        }
                     }
                 });
                 elevatorPanelCenter.add(upButtons.get(i), c);
@@ -266,16 +279,20 @@ public class UI extends JFrame {
             floorButtons.add(new JButton(i));
         }
         for (int i = numFloors - 1; i > -1; i--) {
+            int floor = i;
             floorButtons.get(i).setOpaque(true);
             floorButtons.get(i).addActionListener(new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
                     // Updates elevator when interior button is pressed. Button color is updated to indicate press
-                    if (elevator.checkSecurity(elevator.getFloors().indexOf(e.getActionCommand()))) {
-                        elevator.interiorButtonPressed(e.getActionCommand());
-                        updateFloorButtons(elevator.getFloors().indexOf(e.getActionCommand()));
+                    boolean authorized = elevator.checkSecurity(floor);
+                    if (authorized) {
+                        elevator.interiorButtonPressed(floor);
+                    }
+                    redraw();
+                    if (authorized && drawn.isRequested(floor) && floor != drawn.getCurrentFloor()) {
+                        floorButtons.get(floor).setBackground(Color.YELLOW);
                     }
-                    updateStats();
                 }
             });
             floorButtonsPanel.add(floorButtons.get(i));
@@ -284,28 +301,24 @@ public class UI extends JFrame {
             // Open door button opens elevator door, updates stats panel to indicate that the door is open.
             @Override
             public void actionPerformed(ActionEvent e) {
-                elevator.interiorButtonPressed("open");
-                updateStats();
+                elevator.interiorButtonPressed(ElevatorImpl.OPEN_BUTTON);
+                redraw();
             }
         });
         emergencyButton.addActionListener(new ActionListener() {
             // Emergency button calls elevator emergency method. Updates all buttons to indicate clearing floor requests
             @Override
             public void actionPerformed(ActionEvent e) {
-                elevator.interiorButtonPressed("emergency");
-                updateStats();
-                updateDownCallButtons(-1);
-                updateUpCallButtons(-1);
-                updateFloorButtons(-1);
-                updateFloorSquares();
+                elevator.interiorButtonPressed(ElevatorImpl.EMERGENCY_BUTTON);
+                redraw();
             }
         });
         closeDoorButton.addActionListener(new ActionListener() {
             // Close door button closes elevator door, updates stats panel to indicate that door is closed.
             @Override
             public void actionPerformed(ActionEvent e) {
-                elevator.interiorButtonPressed("close");
-                updateStats();
+                elevator.interiorButtonPressed(ElevatorImpl.CLOSE_BUTTON);
+                redraw();
             }
         });
         functionButtonsPanel.add(closeDoorButton);
@@ -331,11 +344,7 @@ public class UI extends JFrame {
             @Override
             public void actionPerformed(ActionEvent e) {
                 elevator.moveCurrentFloor();
-                updateFloorSquares();
-                updateStats();
-                updateFloorButtons(-1);
-                updateUpCallButtons(-1);
-                updateDownCallButtons(-1);
+                redraw();
             }
         });
         changeUserButton.addActionListener(new ActionListener() {
@@ -355,8 +364,8 @@ public class UI extends JFrame {
             // Calls elevator authenticate method, updates stats panel to display.
             @Override
             public void actionPerformed(ActionEvent e) {
-                elevator.authenticate(user.getName(), (ArrayList<Boolean>) user.getAuthorizedFloors().clone());
-                updateStats();
+                elevator.authenticateFloors(user.getName(), user.getAuthorizedFloors());
+                redraw();
             }
         });
         changeElevatorButton.addActionListener(new ActionListener() {
@@ -370,8 +379,8 @@ public class UI extends JFrame {
                     throw new RuntimeException(ex);
                 }
                 allowedFloorsTA.setText("Allowed Floors: " + getAllowedFloorAsString());
-                updateStats();
                 elevatorReset();
+                updateStats();
             }
         });
 
@@ -384,6 +393,7 @@ public class UI extends JFrame {
 
     // Initializes the stats text areas that display information about the elevator
     private void initializeStatsTextAreas() {
+        ElevatorMetrics.Snapshot metrics = elevator.getMetrics().snapshot();
         statsTextAreas = new ArrayList<>(
                 Arrays.asList(
                         new JTextArea("Security: " + elevator.getSecurityType().toString()),
@@ -391,7 +401,9 @@ public class UI extends JFrame {
                         new JTextArea("Doors: " + elevator.getDoorStatus().toString()),
                         new JTextArea("Authentication: " + elevator.getAuthenticated().toString()),
                         new JTextArea("Direction: " + getDirectionAsString(elevator.getDirection())),
-                        new JTextArea("User: " + user.getName()))
+                        new JTextArea("User: " + user.getName()),
+                        new JTextArea(getAverageWaitAsString(metrics)),
+                        new JTextArea("Stops: " + metrics.stops()))
                 );
         // Sets proper colors and prevents text boxes from being edited
         for (int i = 0; i < statsTextAreas.size(); i++) {
@@ -401,51 +413,38 @@ public class UI extends JFrame {
         }
     }
 
-    // Updates elevator representation
-    private void updateFloorSquares() {
+    /*
+     * Redraws the elevator, the buttons and the car stats from one snapshot of the car. Skipped if the car has not
+     * changed since the last redraw. Buttons are lit when pressed and go out once their request has been served.
+     */
+    private void redraw() {
+        ElevatorSnapshot snapshot = elevator.publishSnapshot();
+        // Nothing to do if the car is unchanged, or if the components are still those of the previous elevator
+        if ((drawn != null && snapshot.getVersion() == drawn.getVersion()) || floorSquares.size() != numFloors) {
+            return;
+        }
+        drawn = snapshot;
+        int currentFloor = snapshot.getCurrentFloor();
         for (int i = 0; i < numFloors; i++) {
-            if (i == elevator.getCurrentFloor()) {
-                floorSquares.get(i).setBackground(Color.YELLOW);
-            } else {
-                floorSquares.get(i).setBackground(Color.gray);
+            floorSquares.get(i).setBackground(i == currentFloor ? Color.YELLOW : Color.gray);
+            if (i < numFloors - 1 && !snapshot.isUpRequested(i)) {
+                upButtons.get(i).setBackground(callButtonColor);
             }
-        }
-    }
-
-    // Updates the up call buttons to display correct color
-    private void updateUpCallButtons(int index) {
-        for (int i = 0; i < numFloors - 1; i++) {
-            if (elevator.getFloorsToVisit().get(i).equals(FloorDirection.NONE) ||
-                    elevator.getFloorsToVisit().get(i).equals(FloorDirection.DOWN)) {
-                upButtons.get(i).setBackground(new Button().getBackground());
-            } else if (i == index) {
-                upButtons.get(i).setBackground(Color.YELLOW);
+            if (i > 0 && !snapshot.isDownRequested(i)) {
+                downButtons.get(i).setBackground(callButtonColor);
             }
-        }
-    }
-
-    // Updates the down call buttons to display correct color
-    private void updateDownCallButtons(int index) {
-        for (int i = 1; i < numFloors; i++) {
-            if (elevator.getFloorsToVisit().get(i).equals(FloorDirection.NONE) ||
-                    elevator.getFloorsToVisit().get(i).equals(FloorDirection.UP)) {
-                downButtons.get(i).setBackground(new Button().getBackground());
-            } else if (i == index) {
-                downButtons.get(i).setBackground(Color.YELLOW);
-            }
-        }
-    }
-
-    // Updates the floor buttons to display correct color
-    private void updateFloorButtons(int index) {
-        for (int i = 0; i < numFloors; i++) {
-            if (elevator.getFloorsToVisit().get(i).equals(FloorDirection.NONE) ||
-                    i == elevator.getCurrentFloor()) {
-                floorButtons.get(i).setBackground(new JButton().getBackground());
-            } else if (i == index) {
-                floorButtons.get(i).setBackground(Color.YELLOW);
+            if (!snapshot.isRequested(i) || i == currentFloor) {
+                floorButtons.get(i).setBackground(floorButtonColor);
             }
         }
+        statsTextAreas.get(0).setText("Security: " + snapshot.getSecurityType().toString());
+        statsTextAreas.get(1).setText("Current Floor: " + (elevator.getFloors().get(currentFloor)));
+        statsTextAreas.get(2).setText("Doors: " + snapshot.getDoorStatus().toString());
+        statsTextAreas.get(3).setText("Authentication: " + snapshot.isAuthenticated());
+        statsTextAreas.get(4).setText("Direction: " + getDirectionAsString(snapshot.getDirection()));
+        ElevatorMetrics.Snapshot metrics = elevator.getMetrics().snapshot();
+        statsTextAreas.get(6).setText(getAverageWaitAsString(metrics));
+        statsTextAreas.get(7).setText("Stops: " + metrics.stops());
     }
 
     // Resets components for simulation when new elevator is selected
@@ -454,20 +453,14 @@ public class UI extends JFrame {
         initializeElevatorPanel();
         controlPanel.removeAll();
         initializeControlPanel();
-        updateFloorSquares();
+        drawn = null;
+        redraw();
         revalidate();
     }
 
     // Gets human user input for selecting a new elevator
-    private String elevatorSetup() {
-        File elevatorDir = new File(ELEVATOR_CONFIG_DIRECTORY_PATH);
-        File[] elevatorFilesUntransformed = elevatorDir.listFiles(
-                pathname -> pathname.toString().endsWith(".json"));
-        Object[] elevatorFiles = Arrays.stream(elevatorFilesUntransformed)
-                .map(f -> f.toString().substring(
-                        ELEVATOR_CONFIG_DIRECTORY_PATH.length(),
-                        f.toString().length() - 5))
-                .toArray();
+    private String elevatorSetup() throws IOException {
+        Object[] elevatorFiles = configs.listElevators().toArray();
         Object elevatorChoice = JOptionPane.showInputDialog(
                 this,
                 "Choose",
@@ -480,15 +473,8 @@ public class UI extends JFrame {
     }
 
     // Gets human user input for selecting a new user
-    private String userSetup() {
-        File userDir = new File(USERS_CONFIG_DIRECTORY_PATH + numFloors);
-        File[] userFilesUntransformed = userDir.listFiles(
-                pathname -> pathname.toString().endsWith(".json"));
-        Object[] userFiles = Arrays.stream(userFilesUntransformed)
-                .map(f -> f.toString().substring(
-                        USERS_CONFIG_DIRECTORY_PATH.length() + 2,
-                        f.toString().length() - 5))
-                .toArray();
+    private String userSetup() throws IOException {
+        Object[] userFiles = configs.listUsers(numFloors).toArray();
         Object userChoice = JOptionPane.showInputDialog(
                 this,
                 "Choose",
@@ -500,14 +486,10 @@ public class UI extends JFrame {
         return userChoice.toString();
     }
 
-    // Updates the stats panel to reflect changes in the elevator
+    // Updates the stats panel to reflect changes in the user or the elevator's config
     private void updateStats() {
-        statsTextAreas.get(0).setText("Security: " + elevator.getSecurityType().toString());
-        statsTextAreas.get(1).setText("Current Floor: " + (elevator.getFloors().get(elevator.getCurrentFloor())));
-        statsTextAreas.get(2).setText("Doors: " + elevator.getDoorStatus().toString());
-        statsTextAreas.get(3).setText("Authentication: " + elevator.getAuthenticated().toString());
-        statsTextAreas.get(4).setText("Direction: " + getDirectionAsString(elevator.getDirection()));
         statsTextAreas.get(5).setText("User: " + user.getName());
+        redraw();
         allowedFloorsTA.setText(elevator.getSecurityType().equals(SecurityType.SPECIFIED) ?
                 "Allowed Floors: " + getAllowedFloorAsString() :
                 ""
@@ -518,13 +500,19 @@ public class UI extends JFrame {
     private String getAllowedFloorAsString() {
         StringBuilder output = new StringBuilder();
         for (int i = 0; i < numFloors; i++) {
-            if (user.getAuthorizedFloors().get(i)) {
+            if (user.getAuthorizedFloors().allows(i)) {
                 output.append(i == numFloors - 1 ? elevator.getFloors().get(i) : (elevator.getFloors().get(i) + " "));
             }
         }
         return output.toString().substring(0, output.length());
     }
 
+    // Gets the average hall call wait of the elevator in seconds to be displayed in stats panel
+    private String getAverageWaitAsString(ElevatorMetrics.Snapshot metrics) {
+        ElevatorMetrics.Summary waits = metrics.waitTimes();
+        return String.format("Average Wait: %.1f s (%d calls)", waits.mean() / 1e9, waits.count());
+    }
+
     // Converts int direction into String to be displayed in stats panel
     private String getDirectionAsString(int direction) {
         return switch (direction) {
@@ -535,40 +523,34 @@ public class UI extends JFrame {
         };
     }
 
-    // Initializes or resets elevator object
+    // Initializes or resets elevator object. Later changes to its config are applied without rebuilding it.
     private ElevatorImpl buildElevator(String elevatorName) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode jsonNode = objectMapper.readTree(new File("config/elevator/" + elevatorName + ".json"));
-        simulationName = jsonNode.get("ElevatorName").asText();
-        numFloors = jsonNode.get("numFloors").asInt();
-        return ElevatorImpl.builder()
-                .floors(new ArrayList<>(
-                        objectMapper.readValue(jsonNode.get("floors").toString(),
-                                new TypeReference<java.util.List<String>>() {})))
-                .securityType(SecurityType.valueOf(jsonNode.get("securityType").asText()))
-                .defaultFloor(jsonNode.get("defaultFloor").asInt())
-                .floorsToVisit(new ArrayList<>(Collections.nCopies(numFloors, FloorDirection.NONE)))
-                .authorizedFloors(new ArrayList<>(Collections.nCopies(numFloors, false)))
-                .authorizedUsers(new ArrayList<>(
-                        objectMapper.readValue(jsonNode.get("authorizedUsers").toString(),
-                                new TypeReference<List<String>>() {})))
-                .doorStatus(DoorStatus.CLOSED)
-                .authenticated(false)
-                .direction(0)
-                .currentFloor(jsonNode.get("currentFloor").asInt())
-                .build();
+        ElevatorConfig config = configs.getElevator(elevatorName);
+        simulationName = config.elevatorName();
+        numFloors = config.numFloors();
+        ElevatorImpl newElevator = config.buildElevator();
+        newElevator.setMetrics(new ElevatorMetrics(numFloors));
+        if (reloader != null) {
+            reloader.close();
+        }
+        reloader = new ConfigReloader(configs, elevatorName, newElevator, () -> SwingUtilities.invokeLater(this::updateStats));
+        return newElevator;
     }
 
-    // Initializers or resets user object
+    // Initializers or resets user object. Later changes to its config replace the user.
     private User buildUser(String userName) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode jsonNode = objectMapper.readTree(new File("config/users/" + numFloors + "/" + userName + ".json"));
+        reloader.watchUser(numFloors, userName, config -> SwingUtilities.invokeLater(() -> {
+            user = buildUser(config);
+            updateStats();
+        }));
+        return buildUser(configs.getUser(numFloors, userName));
+    }
+
+    // Builds a user from a parsed user config
+    static User buildUser(UserConfig config) {
         return User.builder()
-                .name(jsonNode.get("name").asText())
-                .authorizedFloors(new ArrayList<>(
-                        objectMapper.readValue(jsonNode.get("allowedFloors").toString(),
-                                new TypeReference<java.util.List<Boolean>>() {})
-                ))
+                .name(config.name())
+                .authorizedFloors(config.allowedFloors())
                 .build();
     }
 }
@@ -1,14 +1,13 @@
 package com.project.app.simulation;
 
+import com.project.app.util.FloorSet;
 import lombok.Builder;
 import lombok.Data;
 
-import java.util.ArrayList;
-
 @Data
 @Builder
 public class User {
     private String name;
-    private ArrayList<Boolean> authorizedFloors;
+    private FloorSet authorizedFloors;
 
 }
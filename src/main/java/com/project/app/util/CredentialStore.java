@@ -0,0 +1,63 @@
+package com.project.app.util;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash-indexed set of authorized badge holders. Lookups are O(1) regardless of roster size,
+ * and users can be added or revoked at any time, including while other threads are checking badges.
+ */
+public class CredentialStore extends AbstractSet<String> {
+    private final Set<String> cards = ConcurrentHashMap.newKeySet();
+
+    public CredentialStore() {
+    }
+
+    public CredentialStore(Collection<String> cards) {
+        addAll(cards);
+    }
+
+    /**
+     * Returns true if {@code card} is on the roster. Null is never authorized.
+     * @param card Object containing user info
+     * @return boolean indicating if user is authorized
+     */
+    @Override
+    public boolean contains(Object card) {
+        return card != null && cards.contains(card);
+    }
+
+    /**
+     * Grants access to a user.
+     * @param card String containing user info
+     * @return true if the user was not already on the roster
+     * @throws NullPointerException if {@code card} is null
+     */
+    @Override
+    public boolean add(String card) {
+        return cards.add(card);
+    }
+
+    /**
+     * Revokes access from a user.
+     * @param card Object containing user info
+     * @return true if the user was on the roster
+     */
+    @Override
+    public boolean remove(Object card) {
+        return card != null && cards.remove(card);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return cards.iterator();
+    }
+
+    @Override
+    public int size() {
+        return cards.size();
+    }
+}
@@ -0,0 +1,176 @@
+package com.project.app.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only binary journal of elevator state transitions.
+ * Every event is a fixed 32-byte record written straight into a memory-mapped segment file, so appending costs a few
+ * stores and no formatting. When a segment is full the journal rolls over to the next one
+ * ({@code journal-000000.bin}, {@code journal-000001.bin}, ...). Opening a directory that already has segments
+ * continues after the last record.
+ * <p>
+ * Record layout (little-endian): long timestamp (epoch ms), long sequence, int event type code, int floor,
+ * int value (FloorDirection ordinal, or 0), int reserved.
+ */
+public class EventJournal implements Closeable {
+    public static final int RECORD_SIZE = 32;
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final long segmentSize;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private long sequence;
+    private boolean closed;
+
+    public EventJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a journal, creating the directory if needed.
+     * @param directory Path of the directory holding the segment files
+     * @param segmentSize long bytes per segment, rounded down to whole records
+     * @throws IOException if a segment cannot be created or mapped
+     */
+    public EventJournal(Path directory, long segmentSize) throws IOException {
+        if (segmentSize < RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            // Continue after the last record of the newest segment
+            String name = segments.get(segments.size() - 1).getFileName().toString();
+            openSegment(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            while (segment.hasRemaining() && segment.getInt(segment.position() + 16) != 0) {
+                sequence = segment.getLong(segment.position() + 8) + 1;
+                segment.position(segment.position() + RECORD_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Appends an event.
+     * @param type JournalEventType of the event
+     * @param floor int index of the floor, -1 if the event has no floor
+     * @param value int extra value, such as the FloorDirection ordinal of a call
+     * @throws IOException if the journal must roll over and the next segment cannot be mapped
+     */
+    public synchronized void append(JournalEventType type, int floor, int value) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (!segment.hasRemaining()) {
+            segment.force();
+            openSegment(segmentIndex + 1);
+        }
+        segment.putLong(System.currentTimeMillis());
+        segment.putLong(sequence++);
+        segment.putInt(type.getCode());
+        segment.putInt(floor);
+        segment.putInt(value);
+        segment.putInt(0);
+    }
+
+    // Number of events appended since the journal directory was created
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    // Writes mapped records to disk
+    public synchronized void flush() {
+        segment.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            segment.force();
+            closed = true;
+        }
+    }
+
+    /**
+     * Reads every event in a journal directory in order.
+     * @param directory Path of the directory holding the segment files
+     * @param consumer Consumer called once per event
+     * @return long number of events read
+     * @throws IOException if a segment cannot be read
+     */
+    public static long read(Path directory, Consumer<JournalEvent> consumer) throws IOException {
+        long count = 0;
+        for (Path path : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    long timestamp = buffer.getLong();
+                    long sequence = buffer.getLong();
+                    JournalEventType type = JournalEventType.fromCode(buffer.getInt());
+                    int floor = buffer.getInt();
+                    int value = buffer.getInt();
+                    buffer.getInt();
+                    if (type == null) {
+                        // Unwritten tail of the last segment
+                        break;
+                    }
+                    consumer.accept(new JournalEvent(timestamp, sequence, type, floor, value));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void openSegment(int index) throws IOException {
+        Path path = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed. New files are zero-filled.
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segmentIndex = index;
+    }
+
+    // Segment files sorted by index. Zero-padded names sort in order.
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * Event read back from a journal.
+     * @param timestamp long epoch milliseconds when the event was appended
+     * @param sequence long position of the event in the journal
+     * @param type JournalEventType of the event
+     * @param floor int index of the floor, -1 if the event has no floor
+     * @param value int extra value, such as the FloorDirection ordinal of a call
+     */
+    public record JournalEvent(long timestamp, long sequence, JournalEventType type, int floor, int value) {}
+}
@@ -0,0 +1,294 @@
+package com.project.app.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Primitive request table holding the FloorDirection of every floor as two bitmaps (up-requests and down-requests).
+ * Behaves as a fixed-size {@code List<FloorDirection>} so existing callers keep working, and adds
+ * word-at-a-time queries for finding the next requested floor above or below an index.
+ */
+public class FloorRequestTable extends AbstractList<FloorDirection> implements RandomAccess {
+    private final long[] up;
+    private final long[] down;
+    private final int size;
+
+    /**
+     * Creates a table with no floors requested.
+     * @param size int number of floors
+     */
+    public FloorRequestTable(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.size = size;
+        this.up = new long[(size + 63) >>> 6];
+        this.down = new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Creates a table with the same requests as {@code floors}.
+     * @param floors List of FloorDirection, one per floor
+     * @return FloorRequestTable copy of the list
+     */
+    public static FloorRequestTable copyOf(List<FloorDirection> floors) {
+        FloorRequestTable table = new FloorRequestTable(floors.size());
+        for (int i = 0; i < floors.size(); i++) {
+            table.set(i, floors.get(i));
+        }
+        return table;
+    }
+
+    /**
+     * Creates a table from bitmaps returned by {@link #upWords()} and {@link #downWords()}.
+     * @param size int number of floors
+     * @param up long array of up-request words, floor i is bit i
+     * @param down long array of down-request words
+     * @return FloorRequestTable with copies of the bitmaps
+     * @throws IllegalArgumentException if a bitmap does not have one word per 64 floors
+     */
+    public static FloorRequestTable fromWords(int size, long[] up, long[] down) {
+        FloorRequestTable table = new FloorRequestTable(size);
+        if (up.length != table.up.length || down.length != table.down.length) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        System.arraycopy(up, 0, table.up, 0, up.length);
+        System.arraycopy(down, 0, table.down, 0, down.length);
+        return table;
+    }
+
+    // Copy of the up-request bitmap
+    public long[] upWords() {
+        return up.clone();
+    }
+
+    // Copy of the down-request bitmap
+    public long[] downWords() {
+        return down.clone();
+    }
+
+    /**
+     * Compares the requests with bitmaps returned by {@link #upWords()} and {@link #downWords()}, without copying.
+     * @return boolean true if both bitmaps are equal to the table's
+     */
+    public boolean matchesWords(long[] up, long[] down) {
+        return Arrays.equals(this.up, up) && Arrays.equals(this.down, down);
+    }
+
+    @Override
+    public FloorDirection get(int floor) {
+        checkIndex(floor);
+        boolean isUp = (up[floor >>> 6] & (1L << floor)) != 0;
+        boolean isDown = (down[floor >>> 6] & (1L << floor)) != 0;
+        if (isUp) {
+            return isDown ? FloorDirection.BOTH : FloorDirection.UP;
+        }
+        return isDown ? FloorDirection.DOWN : FloorDirection.NONE;
+    }
+
+    @Override
+    public FloorDirection set(int floor, FloorDirection floorDirection) {
+        FloorDirection previous = get(floor);
+        int word = floor >>> 6;
+        long bit = 1L << floor;
+        switch (floorDirection) {
+            case NONE -> {
+                up[word] &= ~bit;
+                down[word] &= ~bit;
+            }
+            case UP -> {
+                up[word] |= bit;
+                down[word] &= ~bit;
+            }
+            case DOWN -> {
+                up[word] &= ~bit;
+                down[word] |= bit;
+            }
+            case BOTH -> {
+                up[word] |= bit;
+                down[word] |= bit;
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if no floor has been requested in either direction.
+     */
+    public boolean hasNoRequests() {
+        for (int i = 0; i < up.length; i++) {
+            if ((up[i] | down[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sets every floor to NONE
+    public void clearRequests() {
+        for (int i = 0; i < up.length; i++) {
+            up[i] = 0;
+            down[i] = 0;
+        }
+    }
+
+    /**
+     * Same as {@code get(floor).shouldStop(direction)} without decoding the enum.
+     * @param floor int index of floor
+     * @param direction Current direction of elevator
+     * @return boolean indicating if elevator should stop
+     */
+    public boolean shouldStop(int floor, int direction) {
+        checkIndex(floor);
+        long[] bits = bitsFor(direction);
+        return bits != null && (bits[floor >>> 6] & (1L << floor)) != 0;
+    }
+
+    /**
+     * Same as {@code set(floor, get(floor).visitFloor(direction))}: clears the request in the direction of travel.
+     * @param floor int index of floor
+     * @param direction Current direction of elevator
+     */
+    public void visitFloor(int floor, int direction) {
+        checkIndex(floor);
+        long[] bits = bitsFor(direction);
+        if (bits != null) {
+            bits[floor >>> 6] &= ~(1L << floor);
+        }
+    }
+
+    /**
+     * Adds a request in one direction, keeping any request in the other.
+     * @param floor int index of floor
+     * @param direction 1 for an up-request, -1 for a down-request
+     * @return boolean true if the floor was not already requested in that direction
+     */
+    public boolean addRequest(int floor, int direction) {
+        checkIndex(floor);
+        long[] bits = bitsFor(direction);
+        if (bits == null) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        long bit = 1L << floor;
+        long previous = bits[floor >>> 6];
+        bits[floor >>> 6] = previous | bit;
+        return (previous & bit) == 0;
+    }
+
+    /**
+     * Finds the lowest floor at or above {@code from} where the elevator should stop when travelling in {@code direction}.
+     * @param from int index to start searching from
+     * @param direction 1 for up-requests, -1 for down-requests
+     * @return int index of floor, -1 if no floor is found
+     */
+    public int nextAtOrAbove(int from, int direction) {
+        long[] bits = bitsFor(direction);
+        if (bits == null || from >= size) {
+            return -1;
+        }
+        int start = Math.max(from, 0);
+        int word = start >>> 6;
+        long masked = bits[word] & (-1L << start);
+        while (true) {
+            if (masked != 0) {
+                int floor = (word << 6) + Long.numberOfTrailingZeros(masked);
+                return floor < size ? floor : -1;
+            }
+            if (++word == bits.length) {
+                return -1;
+            }
+            masked = bits[word];
+        }
+    }
+
+    /**
+     * Finds the highest floor at or below {@code from} where the elevator should stop when travelling in {@code direction}.
+     * @param from int index to start searching from
+     * @param direction 1 for up-requests, -1 for down-requests
+     * @return int index of floor, -1 if no floor is found
+     */
+    public int nextAtOrBelow(int from, int direction) {
+        long[] bits = bitsFor(direction);
+        if (bits == null || from < 0) {
+            return -1;
+        }
+        int start = Math.min(from, size - 1);
+        int word = start >>> 6;
+        long masked = bits[word] & (-1L >>> (63 - (start & 63)));
+        while (true) {
+            if (masked != 0) {
+                return (word << 6) + 63 - Long.numberOfLeadingZeros(masked);
+            }
+            if (--word < 0) {
+                return -1;
+            }
+            masked = bits[word];
+        }
+    }
+
+    // Lowest floor requested in any direction, -1 if none
+    public int lowestRequest() {
+        for (int i = 0; i < up.length; i++) {
+            long bits = up[i] | down[i];
+            if (bits != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    // Highest floor requested in any direction, -1 if none
+    public int highestRequest() {
+        for (int i = up.length - 1; i >= 0; i--) {
+            long bits = up[i] | down[i];
+            if (bits != 0) {
+                return (i << 6) + 63 - Long.numberOfLeadingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts floors between {@code low} and {@code high} (inclusive) that are requested in any direction.
+     * @param low int lowest index
+     * @param high int highest index
+     * @return int number of requested floors
+     */
+    public int countRequests(int low, int high) {
+        int from = Math.max(low, 0);
+        int to = Math.min(high, size - 1);
+        int count = 0;
+        for (int word = from >>> 6; from <= to && word <= to >>> 6; word++) {
+            long mask = -1L;
+            if (word == from >>> 6) {
+                mask &= -1L << from;
+            }
+            if (word == to >>> 6) {
+                mask &= -1L >>> (63 - (to & 63));
+            }
+            count += Long.bitCount((up[word] | down[word]) & mask);
+        }
+        return count;
+    }
+
+    private long[] bitsFor(int direction) {
+        return switch (direction) {
+            case 1 -> up;
+            case -1 -> down;
+            default -> null;
+        };
+    }
+
+    private void checkIndex(int floor) {
+        if (floor < 0 || floor >= size) {
+            throw new IndexOutOfBoundsException("Index " + floor + " out of bounds for length " + size);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.project.app.util;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable set of floors a user may access, stored as a bitmap.
+ * Behaves as a read-only {@code List<Boolean>} (one entry per floor) so it compares equal to the boolean lists
+ * used in configs and tests. Instances are interned: users with identical access share one FloorSet. The intern
+ * table only holds weak references, so access patterns no user has any more are dropped by the garbage collector.
+ * Interning locks one bin of a ConcurrentHashMap, so imports and authentications on different threads do not queue
+ * behind each other.
+ */
+public final class FloorSet extends AbstractList<Boolean> implements RandomAccess {
+    // Each entry is its own key and compares by the bitmap it was made from. Cleared entries are queued for removal.
+    private static final ConcurrentHashMap<Interned, Interned> INTERNED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<FloorSet> CLEARED = new ReferenceQueue<>();
+    private static final ConcurrentHashMap<Integer, FloorSet> NONE = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Integer, FloorSet> ALL = new ConcurrentHashMap<>();
+
+    private final long[] bits;
+    private final int size;
+    private final int hash;
+
+    private FloorSet(long[] bits, int size) {
+        this.bits = bits;
+        this.size = size;
+        this.hash = listHashCode();
+    }
+
+    /**
+     * Returns the FloorSet allowing exactly the floors that are true in {@code floors}.
+     * @param floors List of Booleans, one per floor
+     * @return FloorSet shared with every other user with the same access
+     */
+    public static FloorSet of(List<Boolean> floors) {
+        if (floors instanceof FloorSet floorSet) {
+            return floorSet;
+        }
+        long[] bits = new long[(floors.size() + 63) >>> 6];
+        for (int i = 0; i < floors.size(); i++) {
+            if (floors.get(i)) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+        return intern(new FloorSet(bits, floors.size()));
+    }
+
+    /**
+     * Creates a FloorSet straight from the JSON array of booleans used by the user configs.
+     * @param floors boolean array, one entry per floor
+     * @return FloorSet shared with every other user with the same access
+     */
+    @JsonCreator
+    public static FloorSet of(boolean[] floors) {
+        long[] bits = new long[(floors.length + 63) >>> 6];
+        for (int i = 0; i < floors.length; i++) {
+            if (floors[i]) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+        return intern(new FloorSet(bits, floors.length));
+    }
+
+    /**
+     * Creates a FloorSet from a bitmap returned by {@link #toWords()}.
+     * @param size int number of floors
+     * @param words long array with one word per 64 floors, floor i is bit i
+     * @return FloorSet shared with every other user with the same access
+     * @throws IllegalArgumentException if the bitmap has the wrong length or bits past the last floor
+     */
+    public static FloorSet fromWords(int size, long[] words) {
+        if (size < 0 || words.length != (size + 63) >>> 6 ||
+                ((size & 63) != 0 && (words[words.length - 1] & -(1L << size)) != 0)) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        return intern(new FloorSet(words.clone(), size));
+    }
+
+    // Copy of the bitmap, one word per 64 floors
+    public long[] toWords() {
+        return bits.clone();
+    }
+
+    // FloorSet of the given size without any accessible floor
+    public static FloorSet none(int size) {
+        return NONE.computeIfAbsent(size, n -> intern(new FloorSet(new long[(n + 63) >>> 6], n)));
+    }
+
+    // FloorSet of the given size where every floor is accessible
+    public static FloorSet all(int size) {
+        return ALL.computeIfAbsent(size, n -> {
+            long[] bits = new long[(n + 63) >>> 6];
+            Arrays.fill(bits, -1L);
+            if ((n & 63) != 0) {
+                bits[bits.length - 1] = (1L << n) - 1;
+            }
+            return intern(new FloorSet(bits, n));
+        });
+    }
+
+    private static FloorSet intern(FloorSet floorSet) {
+        expungeCleared();
+        Interned entry = new Interned(floorSet);
+        while (true) {
+            // Keeps a live equal entry, or puts this one in place of a missing or cleared one
+            Interned shared = INTERNED.compute(entry,
+                    (key, existing) -> existing != null && existing.get() != null ? existing : entry);
+            FloorSet interned = shared.get();
+            if (interned != null) {
+                return interned;
+            }
+        }
+    }
+
+    // Removes entries whose FloorSet has been collected, unless an equal entry has replaced them
+    private static void expungeCleared() {
+        for (Reference<? extends FloorSet> cleared; (cleared = CLEARED.poll()) != null; ) {
+            Interned stale = (Interned) cleared;
+            INTERNED.computeIfPresent(stale, (key, existing) -> existing == stale ? null : existing);
+        }
+    }
+
+    // Number of entries in the intern table, collected or not
+    static int internedCount() {
+        return INTERNED.size();
+    }
+
+    /**
+     * Returns true if the floor may be accessed.
+     * @param floor int index of floor
+     * @return boolean indicating if floor is accessible
+     */
+    public boolean allows(int floor) {
+        if (floor < 0 || floor >= size) {
+            throw new IndexOutOfBoundsException("Index " + floor + " out of bounds for length " + size);
+        }
+        return (bits[floor >>> 6] & (1L << floor)) != 0;
+    }
+
+    @Override
+    public Boolean get(int floor) {
+        return allows(floor);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o instanceof FloorSet other) {
+            return size == other.size && hash == other.hash && Arrays.equals(bits, other.bits);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    // Same value as List.hashCode() so FloorSets and boolean lists with equal contents hash alike
+    private int listHashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Boolean.hashCode((bits[i >>> 6] & (1L << i)) != 0);
+        }
+        return result;
+    }
+
+    // Intern table entry. Keeps the bitmap but not the FloorSet, so it still compares equal once the FloorSet is gone.
+    private static final class Interned extends WeakReference<FloorSet> {
+        private final long[] bits;
+        private final int size;
+        private final int hash;
+
+        Interned(FloorSet floorSet) {
+            super(floorSet, CLEARED);
+            this.bits = floorSet.bits;
+            this.size = floorSet.size;
+            this.hash = floorSet.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Interned other && size == other.size && hash == other.hash &&
+                    Arrays.equals(bits, other.bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.app.util;
+
+public enum JournalEventType {
+    HALL_CALL_REGISTERED(1),
+    CAR_CALL_REGISTERED(2),
+    STOP_SERVED(3),
+    DOOR_OPENED(4),
+    DOOR_CLOSED(5),
+    AUTH_SUCCEEDED(6),
+    AUTH_FAILED(7),
+    EMERGENCY(8);
+
+    private static final JournalEventType[] BY_CODE = new JournalEventType[values().length + 1];
+
+    static {
+        for (JournalEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    // Code stored in the journal. 0 marks an unwritten record.
+    private final int code;
+
+    JournalEventType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the event type stored under a journal code.
+     * @param code int code read from the journal
+     * @return JournalEventType, null if the code is 0 or unknown
+     */
+    public static JournalEventType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,124 @@
+package com.project.app.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram for recording non-negative latencies (HDR style).
+ * Values below 64 are recorded exactly, larger values are bucketed with roughly 3% precision.
+ * Recording is wait-free and safe to call from any thread. A histogram created with {@link #singleWriter()} may only
+ * be recorded to by one thread at a time, but skips the atomic read-modify-write instructions; it can still be read
+ * from any thread.
+ */
+public class LatencyHistogram {
+    // Number of sub-buckets per power of two is 2^SUB_BUCKET_BITS
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + 2 * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final boolean singleWriter;
+
+    public LatencyHistogram() {
+        this(false);
+    }
+
+    private LatencyHistogram(boolean singleWriter) {
+        this.singleWriter = singleWriter;
+    }
+
+    // Histogram recorded to by one thread only, such as the thread that owns a car
+    public static LatencyHistogram singleWriter() {
+        return new LatencyHistogram(true);
+    }
+
+    /**
+     * Records a single value. Negative values are recorded as 0.
+     * @param value latency to record
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        if (singleWriter) {
+            // Release stores are enough for readers on other threads when there is only one writer
+            int index = bucketIndex(v);
+            counts.lazySet(index, counts.get(index) + 1);
+            count.lazySet(count.get() + 1);
+            sum.lazySet(sum.get() + v);
+            if (v > max.get()) {
+                max.lazySet(v);
+            }
+            return;
+        }
+        counts.incrementAndGet(bucketIndex(v));
+        count.incrementAndGet();
+        sum.addAndGet(v);
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Returns the value at the given percentile. The result is the upper bound of the bucket containing it.
+     * @param percentile double between 0 and 100
+     * @return long value at percentile, 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(n * Math.min(100, Math.max(0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    // Clears all recorded values
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    // Values below 2 * SUB_BUCKET_COUNT map to themselves, larger values keep their top SUB_BUCKET_BITS + 1 bits.
+    private static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = index - (long) shift * SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,301 @@
+package com.project.app.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the maintenance log without loading it into memory.
+ * Keeps a sparse index with the byte offset and timestamp of every {@code indexInterval}-th line, so tail, page and
+ * time-range queries only read the lines they return (plus at most one index block). The index is extended from
+ * where it stopped each time a query is made, and rebuilt if the file shrinks (cleared or rolled over).
+ * Only complete lines (ending in a newline) are indexed.
+ */
+public class MaintenanceLogReader {
+    private static final int DEFAULT_INDEX_INTERVAL = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Log lines start with the timestamp written by the PatternLayout in log4j2.xml
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int TIMESTAMP_LENGTH = 19;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path path;
+    private final int indexInterval;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    // Offset and timestamp (epoch seconds) of lines 0, indexInterval, 2 * indexInterval, ...
+    private long[] blockOffsets = new long[16];
+    private long[] blockTimestamps = new long[16];
+    private int blocks;
+    private long lineCount;
+    // Bytes of the file covered by the index, always the end of a complete line
+    private long indexedLength;
+
+    public MaintenanceLogReader(Path path) {
+        this(path, DEFAULT_INDEX_INTERVAL);
+    }
+
+    /**
+     * @param path Path of the log file
+     * @param indexInterval int number of lines per index entry
+     */
+    public MaintenanceLogReader(Path path, int indexInterval) {
+        if (indexInterval <= 0) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        this.path = path;
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * Returns the number of complete lines in the log.
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized long getLineCount() throws IOException {
+        refresh();
+        return lineCount;
+    }
+
+    /**
+     * Returns the last lines of the log.
+     * @param maxLines int maximum number of lines
+     * @return List of lines, oldest first
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized List<String> tail(int maxLines) throws IOException {
+        refresh();
+        return readLines(Math.max(0, lineCount - maxLines), maxLines);
+    }
+
+    /**
+     * Returns a page of the log.
+     * @param firstLine long index of the first line, starting at 0
+     * @param maxLines int maximum number of lines
+     * @return List of lines, empty if firstLine is past the end of the log
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized List<String> page(long firstLine, int maxLines) throws IOException {
+        if (firstLine < 0 || maxLines < 0) {
+            throw new IllegalArgumentException("Invalid Argument Given");
+        }
+        refresh();
+        return readLines(firstLine, maxLines);
+    }
+
+    /**
+     * Returns the lines logged between two times. Lines without a timestamp (such as stack traces) belong to the
+     * line above them.
+     * @param from LocalDateTime earliest time, inclusive
+     * @param to LocalDateTime latest time, inclusive
+     * @param maxLines int maximum number of lines
+     * @return List of lines, oldest first
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized List<String> range(LocalDateTime from, LocalDateTime to, int maxLines) throws IOException {
+        refresh();
+        long start = toSeconds(from);
+        long end = toSeconds(to);
+        // Last block that starts before the range, the range cannot start earlier than that block
+        int block = 0;
+        int low = 0;
+        int high = blocks - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (blockTimestamps[mid] < start) {
+                block = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        if (blocks == 0) {
+            return lines;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            LineCursor cursor = new LineCursor(channel, blockOffsets[block]);
+            long timestamp = blockTimestamps[block];
+            String line;
+            while (lines.size() < maxLines && (line = cursor.next()) != null) {
+                long lineTimestamp = parseTimestamp(line);
+                if (lineTimestamp != NO_TIMESTAMP) {
+                    timestamp = lineTimestamp;
+                }
+                if (timestamp > end) {
+                    break;
+                } else if (timestamp >= start) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Extends the index over lines appended since the last call. Rebuilds it if the file got shorter.
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized void refresh() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            reset();
+            return;
+        }
+        try (channel) {
+            long size = channel.size();
+            if (size < indexedLength) {
+                reset();
+            }
+            long position = indexedLength;
+            long lineStart = indexedLength;
+            byte[] head = new byte[TIMESTAMP_LENGTH];
+            int headLength = 0;
+            while (position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                byte[] bytes = buffer.array();
+                for (int i = 0; i < read; i++) {
+                    if (position + i == lineStart) {
+                        headLength = 0;
+                    }
+                    if (headLength < TIMESTAMP_LENGTH) {
+                        head[headLength++] = bytes[i];
+                    }
+                    if (bytes[i] == '\n') {
+                        indexLine(lineStart, head, headLength);
+                        lineStart = position + i + 1;
+                    }
+                }
+                position += read;
+            }
+            indexedLength = lineStart;
+        }
+    }
+
+    private void reset() {
+        blocks = 0;
+        lineCount = 0;
+        indexedLength = 0;
+    }
+
+    // Counts a complete line and adds it to the index if it starts a new block
+    private void indexLine(long offset, byte[] head, int headLength) {
+        if (lineCount % indexInterval == 0) {
+            if (blocks == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+                blockTimestamps = Arrays.copyOf(blockTimestamps, blocks * 2);
+            }
+            // A block starting with a line without timestamp keeps the previous block's time as a lower bound
+            long timestamp = parseTimestamp(new String(head, 0, headLength, StandardCharsets.UTF_8));
+            blockOffsets[blocks] = offset;
+            blockTimestamps[blocks] = timestamp != NO_TIMESTAMP || blocks == 0 ? timestamp : blockTimestamps[blocks - 1];
+            blocks++;
+        }
+        lineCount++;
+    }
+
+    private List<String> readLines(long firstLine, int maxLines) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (firstLine >= lineCount || maxLines == 0) {
+            return lines;
+        }
+        int block = (int) (firstLine / indexInterval);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            LineCursor cursor = new LineCursor(channel, blockOffsets[block]);
+            for (long skip = firstLine - (long) block * indexInterval; skip > 0; skip--) {
+                cursor.skip();
+            }
+            String line;
+            while (lines.size() < maxLines && (line = cursor.next()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static long parseTimestamp(String line) {
+        if (line.length() < TIMESTAMP_LENGTH) {
+            return NO_TIMESTAMP;
+        }
+        try {
+            return toSeconds(LocalDateTime.parse(line.substring(0, TIMESTAMP_LENGTH), TIMESTAMP_FORMAT));
+        } catch (DateTimeParseException e) {
+            return NO_TIMESTAMP;
+        }
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    // Reads lines forward from an offset, stopping at the end of the indexed part of the file
+    private class LineCursor {
+        private final FileChannel channel;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private long position;
+        private int next;
+        private int limit;
+
+        LineCursor(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        String next() throws IOException {
+            line.reset();
+            return readLine(true) ? line.toString(StandardCharsets.UTF_8) : null;
+        }
+
+        void skip() throws IOException {
+            readLine(false);
+        }
+
+        private boolean readLine(boolean keep) throws IOException {
+            while (true) {
+                if (next == limit) {
+                    if (position >= indexedLength) {
+                        return false;
+                    }
+                    buffer.clear();
+                    buffer.limit((int) Math.min(BUFFER_SIZE, indexedLength - position));
+                    limit = channel.read(buffer, position);
+                    if (limit <= 0) {
+                        return false;
+                    }
+                    position += limit;
+                    next = 0;
+                }
+                byte[] bytes = buffer.array();
+                int start = next;
+                while (next < limit && bytes[next] != '\n') {
+                    next++;
+                }
+                if (keep) {
+                    line.write(bytes, start, next - start);
+                }
+                if (next < limit) {
+                    next++;
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.app.util;
+
+public enum TrafficPattern {
+    // Most calls are UP calls at the lobby, such as in the morning
+    UP_PEAK,
+    // Most calls are DOWN calls above the lobby, such as in the evening
+    DOWN_PEAK,
+    // Calls between floors with no dominant direction
+    INTERFLOOR,
+    // Too few calls to tell
+    IDLE
+}
@@ -0,0 +1,94 @@
+package com.project.app.config;
+
+import com.project.app.elevator.ElevatorImpl;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.SecurityType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class ConfigReloaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String elevatorJson(String floors, String securityType, int defaultFloor, String users) {
+        return """
+                {
+                  "ElevatorName": "Test Elevator",
+                  "floors": [%s],
+                  "securityType": "%s",
+                  "defaultFloor": %d,
+                  "authorizedUsers": [%s],
+                  "currentFloor": 0,
+                  "numFloors": 4
+                }""".formatted(floors, securityType, defaultFloor, users);
+    }
+
+    @Test
+    @DisplayName("Reloaded Config Keeps Queued Stops")
+    void reloadedConfig_keepsQueuedStops() throws Exception {
+        Path file = Files.createDirectories(tempDir.resolve("elevator")).resolve("test.json");
+        Files.writeString(file, elevatorJson("\"L\", \"2\", \"3\", \"4\"", "GENERAL", 0, "\"Joe\""));
+
+        try (ConfigRepository configs = new ConfigRepository(tempDir)) {
+            ElevatorImpl elevator = configs.getElevator("test").buildElevator();
+            elevator.callButtonPressed(2, FloorDirection.UP);
+            elevator.callButtonPressed(3, FloorDirection.DOWN);
+
+            CountDownLatch applied = new CountDownLatch(1);
+            try (ConfigReloader reloader = new ConfigReloader(configs, "test", elevator, applied::countDown)) {
+                Files.writeString(file, elevatorJson("\"L\", \"2\", \"3\", \"4\"", "SPECIFIED", 1, "\"Sam\""));
+                Assertions.assertTrue(applied.await(30, TimeUnit.SECONDS));
+                Assertions.assertTrue(reloader.getReloadCount() >= 1);
+            }
+
+            Assertions.assertEquals(SecurityType.SPECIFIED, elevator.getSecurityType());
+            Assertions.assertEquals(1, elevator.getDefaultFloor());
+            Assertions.assertTrue(elevator.getAuthorizedUsers().contains("Sam"));
+            Assertions.assertFalse(elevator.getAuthorizedUsers().contains("Joe"));
+            Assertions.assertEquals(FloorDirection.UP, elevator.getFloorsToVisit().get(2));
+            Assertions.assertEquals(FloorDirection.DOWN, elevator.getFloorsToVisit().get(3));
+        }
+    }
+
+    @Test
+    @DisplayName("Config That Does Not Fit The Car Is Not Applied")
+    void configThatDoesNotFitTheCar_isNotApplied() throws Exception {
+        Path file = Files.createDirectories(tempDir.resolve("elevator")).resolve("test.json");
+        Files.writeString(file, elevatorJson("\"L\", \"2\", \"3\", \"4\"", "GENERAL", 0, "\"Joe\""));
+
+        try (ConfigRepository configs = new ConfigRepository(tempDir)) {
+            ElevatorImpl elevator = configs.getElevator("test").buildElevator();
+            CountDownLatch changed = new CountDownLatch(1);
+            try (ConfigReloader reloader = new ConfigReloader(configs, "test", elevator, () -> { })) {
+                // Listeners run in order, so this one runs after the reloader has seen the last change
+                configs.addListener(path -> {
+                    try {
+                        if (configs.getElevator("test").defaultFloor() == 7) {
+                            changed.countDown();
+                        }
+                    } catch (IOException e) {
+                        // File is still being written
+                    }
+                });
+                // Renamed floors, then a default floor the car does not have
+                Files.writeString(file, elevatorJson("\"G\", \"2\", \"3\", \"4\"", "NONE", 0, "\"Joe\""));
+                Thread.sleep(100);
+                Files.writeString(file, elevatorJson("\"L\", \"2\", \"3\", \"4\"", "NONE", 7, "\"Joe\""));
+                Assertions.assertTrue(changed.await(30, TimeUnit.SECONDS));
+                Assertions.assertEquals(0, reloader.getReloadCount());
+            }
+
+            Assertions.assertEquals(SecurityType.GENERAL, elevator.getSecurityType());
+            Assertions.assertEquals(0, elevator.getDefaultFloor());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.app.config;
+
+import com.project.app.elevator.ElevatorImpl;
+import com.project.app.util.SecurityType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class ConfigRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String elevatorJson(int defaultFloor) {
+        return """
+                {
+                  "ElevatorName": "Test Elevator",
+                  "floors": ["L", "2", "3", "4"],
+                  "securityType": "GENERAL",
+                  "defaultFloor": %d,
+                  "authorizedUsers": ["Joe"],
+                  "currentFloor": 0,
+                  "numFloors": 4
+                }""".formatted(defaultFloor);
+    }
+
+    @Test
+    @DisplayName("Repository Loads And Caches Configs")
+    void repository_loadsAndCachesConfigs() throws IOException {
+        try (ConfigRepository configs = new ConfigRepository(Paths.get("config"))) {
+            ElevatorConfig config = configs.getElevator("specified_8");
+            Assertions.assertSame(config, configs.getElevator("specified_8"));
+            Assertions.assertEquals(SecurityType.SPECIFIED, config.securityType());
+            Assertions.assertEquals(8, config.floors().size());
+
+            ElevatorImpl elevator = config.buildElevator();
+            Assertions.assertEquals(config.currentFloor(), elevator.getCurrentFloor());
+            Assertions.assertTrue(elevator.getFloorsToVisit().hasNoRequests());
+
+            List<UserConfig> users = configs.getUsers(8);
+            Assertions.assertEquals(configs.listUsers(8).size(), users.size());
+            Assertions.assertSame(configs.getUser(8, "joe"), users.get(configs.listUsers(8).indexOf("joe")));
+            Assertions.assertTrue(configs.listElevators().contains("none_4"));
+            Assertions.assertThrows(IOException.class, () -> configs.getElevator("missing"));
+        }
+    }
+
+    @Test
+    @DisplayName("Changed Config File Is Reloaded")
+    void changedConfigFile_isReloaded() throws Exception {
+        Path elevatorDirectory = Files.createDirectories(tempDir.resolve("elevator"));
+        Path file = elevatorDirectory.resolve("test.json");
+        Files.writeString(file, elevatorJson(0));
+
+        try (ConfigRepository configs = new ConfigRepository(tempDir)) {
+            CountDownLatch changed = new CountDownLatch(1);
+            configs.addListener(path -> {
+                if (path.equals(file)) {
+                    changed.countDown();
+                }
+            });
+            Assertions.assertEquals(0, configs.getElevator("test").defaultFloor());
+
+            Files.writeString(file, elevatorJson(2));
+            Assertions.assertTrue(changed.await(30, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, configs.getElevator("test").defaultFloor());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.app.config;
+
+import com.project.app.util.CredentialStore;
+import com.project.app.util.FloorSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+class RosterImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("JSON Lines Roster Reports Bad Rows Without Aborting")
+    void jsonLinesRoster_reportsBadRowsWithoutAborting() throws IOException {
+        Path file = tempDir.resolve("roster.jsonl");
+        Files.writeString(file, """
+                {"name": "Joe", "allowedFloors": [true, true, false, true]}
+                {"name": "Sam", "allowedFloors": [true, false, true]}
+                {"name": "Sarah", "badge": 7, "allowedFloors": [true, true, false, true]}
+                not json
+                {"allowedFloors": [true, true, true, true]}
+
+                {"name": "Jeff", "allowedFloors": [false, false, false, false]}
+                """);
+
+        CredentialStore users = new CredentialStore();
+        Map<String, FloorSet> permissions = new HashMap<>();
+        RosterImporter.ImportReport report = new RosterImporter(4).importRoster(file, (name, floors) -> {
+            users.add(name);
+            permissions.put(name, floors);
+        });
+
+        Assertions.assertEquals(3, report.imported());
+        Assertions.assertEquals(3, report.rejected());
+        Assertions.assertEquals(2, report.errors().get(0).line());
+        Assertions.assertEquals(4, report.errors().get(1).line());
+        Assertions.assertEquals(5, report.errors().get(2).line());
+        Assertions.assertTrue(users.contains("Sarah"));
+        Assertions.assertFalse(users.contains("Sam"));
+        // Users with the same access share one FloorSet
+        Assertions.assertSame(permissions.get("Joe"), permissions.get("Sarah"));
+        Assertions.assertSame(FloorSet.none(4), permissions.get("Jeff"));
+    }
+
+    @Test
+    @DisplayName("CSV Roster Imports Large Roster")
+    void csvRoster_importsLargeRoster() throws IOException {
+        Path file = tempDir.resolve("roster.csv");
+        StringBuilder csv = new StringBuilder("name,floors\n");
+        for (int i = 0; i < 100_000; i++) {
+            csv.append("user").append(i).append(',').append(i % 2 == 0 ? "10101010" : "11111111").append('\n');
+        }
+        csv.append("broken,1010\n");
+        Files.writeString(file, csv);
+
+        CredentialStore users = new CredentialStore();
+        RosterImporter.ImportReport report = new RosterImporter(8).importRoster(file, (name, floors) -> users.add(name));
+
+        Assertions.assertEquals(100_000, report.imported());
+        Assertions.assertEquals(1, report.rejected());
+        Assertions.assertEquals(100_002, report.errors().get(0).line());
+        Assertions.assertEquals(100_000, users.size());
+        Assertions.assertTrue(users.contains("user99999"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RosterImporter(8).importRoster(tempDir.resolve("roster.txt"), (name, floors) -> { }));
+    }
+}
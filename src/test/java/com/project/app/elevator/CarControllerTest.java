@@ -0,0 +1,183 @@
+package com.project.app.elevator;
+
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class CarControllerTest {
+
+    private ElevatorImpl buildCar() {
+        return TestElevators.car(8).build();
+    }
+
+    private CarController buildController(int numCars) {
+        List<ElevatorImpl> cars = new ArrayList<>();
+        for (int i = 0; i < numCars; i++) {
+            cars.add(buildCar());
+        }
+        return CarController.builder()
+                .cars(cars)
+                .floorTravelTime(1)
+                .doorDwellTime(1)
+                .idleReturnTime(20)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Cars Serve Requests And Return To Default Floor")
+    void cars_serveRequestsAndReturnToDefaultFloor() throws InterruptedException {
+        CarController controller = buildController(500);
+        controller.start();
+        for (int car = 0; car < controller.getCarCount(); car++) {
+            Assertions.assertTrue(controller.callButtonPressed(car, 5, FloorDirection.DOWN));
+            Assertions.assertTrue(controller.interiorButtonPressed(car, "3"));
+        }
+        for (int car = 0; car < controller.getCarCount(); car++) {
+            // Both events are applied from version 3 on, and only serving them clears the requests again
+            TestElevators.awaitSnapshot(controller.getCar(car), snapshot -> snapshot.getVersion() >= 3 &&
+                    !snapshot.isRequested(5) && !snapshot.isRequested(2) && snapshot.getCurrentFloor() == 0);
+        }
+        controller.stop();
+
+        Assertions.assertFalse(controller.isRunning());
+        Assertions.assertEquals(1000, controller.getEventLatencies().getCount());
+        Assertions.assertTrue(controller.getEventLatencies().getValueAtPercentile(99) > 0);
+        for (int car = 0; car < controller.getCarCount(); car++) {
+            Assertions.assertTrue(controller.getCar(car).getFloorsToVisit().hasNoRequests());
+            Assertions.assertEquals(0, controller.getCar(car).getCurrentFloor());
+        }
+    }
+
+    @Test
+    @DisplayName("Paused Cars Apply Events Without Moving")
+    void pausedCars_applyEventsWithoutMoving() throws InterruptedException {
+        CarController controller = buildController(1);
+        controller.start();
+        controller.pause();
+        controller.callButtonPressed(0, 4, FloorDirection.UP);
+        TestElevators.awaitSnapshot(controller.getCar(0), snapshot -> snapshot.isUpRequested(4));
+        controller.stop();
+
+        Assertions.assertEquals(1, controller.getEventLatencies().getCount());
+        Assertions.assertEquals(FloorDirection.UP, controller.getCar(0).getFloorsToVisit().get(4));
+        Assertions.assertEquals(0, controller.getCar(0).getCurrentFloor());
+
+        controller.start();
+        Assertions.assertFalse(controller.isPaused());
+        TestElevators.awaitSnapshot(controller.getCar(0), snapshot -> !snapshot.isRequested(4));
+        controller.stop();
+        Assertions.assertTrue(controller.getCar(0).getFloorsToVisit().hasNoRequests());
+    }
+
+    @Test
+    @DisplayName("Full Queue Drops Events")
+    void fullQueue_dropsEvents() throws InterruptedException {
+        CarController controller = CarController.builder()
+                .cars(new ArrayList<>(List.of(buildCar())))
+                .floorTravelTime(60_000)
+                .doorDwellTime(1)
+                .idleReturnTime(60_000)
+                .queueCapacity(2)
+                .build();
+        // No car thread takes events before start
+        Assertions.assertTrue(controller.callButtonPressed(0, 4, FloorDirection.UP));
+        Assertions.assertTrue(controller.interiorButtonPressed(0, "7"));
+        Assertions.assertFalse(controller.callButtonPressed(0, 5, FloorDirection.DOWN));
+        Assertions.assertFalse(controller.interiorButtonPressed(0, "3"));
+
+        // The car needs a minute per floor, so nothing is served during the test
+        controller.start();
+        ElevatorImpl car = controller.getCar(0);
+        ElevatorSnapshot applied = TestElevators.awaitSnapshot(car,
+                snapshot -> snapshot.isUpRequested(4) && snapshot.isRequested(6));
+        Assertions.assertFalse(applied.isRequested(5));
+        Assertions.assertFalse(applied.isRequested(2));
+        // Queued events have been taken, so the queue accepts events again
+        Assertions.assertTrue(controller.callButtonPressed(0, 5, FloorDirection.DOWN));
+        TestElevators.awaitSnapshot(car, snapshot -> snapshot.isDownRequested(5));
+        controller.stop();
+        Assertions.assertEquals(3, controller.getEventLatencies().getCount());
+    }
+
+    @Test
+    @DisplayName("Travelling Car Publishes Floors It Passes")
+    void travellingCar_publishesFloorsItPasses() throws InterruptedException {
+        CarController controller = CarController.builder()
+                .cars(new ArrayList<>(List.of(buildCar())))
+                .floorTravelTime(100)
+                .doorDwellTime(1)
+                .idleReturnTime(60_000)
+                .build();
+        controller.start();
+        controller.callButtonPressed(0, 5, FloorDirection.DOWN);
+
+        // Between floors the car is shown where it is, with the door closed
+        ElevatorImpl car = controller.getCar(0);
+        ElevatorSnapshot passing = TestElevators.awaitSnapshot(car, snapshot -> snapshot.getCurrentFloor() == 2);
+        Assertions.assertEquals(DoorStatus.CLOSED, passing.getDoorStatus());
+        Assertions.assertTrue(passing.isDownRequested(5));
+        ElevatorSnapshot arrived = TestElevators.awaitSnapshot(car, snapshot -> snapshot.getCurrentFloor() == 5);
+        Assertions.assertEquals(DoorStatus.OPEN, arrived.getDoorStatus());
+        Assertions.assertFalse(arrived.isRequested(5));
+        controller.stop();
+    }
+
+    @Test
+    @DisplayName("Call For The Floor Just Left Is Served On A Later Pass")
+    void callForFloorJustLeft_isServedOnLaterPass() throws InterruptedException {
+        CarController controller = CarController.builder()
+                .cars(new ArrayList<>(List.of(buildCar())))
+                .floorTravelTime(100)
+                .doorDwellTime(1)
+                .idleReturnTime(60_000)
+                .build();
+        controller.start();
+        controller.callButtonPressed(0, 7, FloorDirection.DOWN);
+
+        // Floor 1 is published as the car passes it, and the car travels on towards floor 2 for the next 100 ms
+        ElevatorImpl car = controller.getCar(0);
+        TestElevators.awaitSnapshot(car, snapshot -> snapshot.getCurrentFloor() == 1);
+        controller.callButtonPressed(0, 1, FloorDirection.UP);
+        ElevatorSnapshot queued = TestElevators.awaitSnapshot(car, snapshot -> snapshot.isUpRequested(1));
+        Assertions.assertEquals(DoorStatus.CLOSED, queued.getDoorStatus());
+
+        ElevatorSnapshot top = TestElevators.awaitSnapshot(car, snapshot -> snapshot.getCurrentFloor() == 7);
+        Assertions.assertTrue(top.isUpRequested(1));
+        ElevatorSnapshot served = TestElevators.awaitSnapshot(car,
+                snapshot -> snapshot.getCurrentFloor() == 1 && !snapshot.isRequested(1));
+        Assertions.assertEquals(DoorStatus.OPEN, served.getDoorStatus());
+        controller.stop();
+    }
+
+    @Test
+    @DisplayName("Car Keeps Running After A Failure")
+    void car_keepsRunningAfterFailure() throws InterruptedException {
+        AtomicBoolean failed = new AtomicBoolean();
+        ElevatorImpl car = buildCar();
+        car.setSchedulingPolicy((requests, currentFloor, direction) -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Policy failed");
+            }
+            return new CollectiveControlPolicy().nextStop(requests, currentFloor, direction);
+        });
+        CarController controller = CarController.builder()
+                .cars(new ArrayList<>(List.of(car)))
+                .floorTravelTime(1)
+                .doorDwellTime(1)
+                .idleReturnTime(60_000)
+                .build();
+        controller.start();
+        controller.callButtonPressed(0, 3, FloorDirection.UP);
+
+        TestElevators.awaitSnapshot(car, snapshot -> snapshot.getCurrentFloor() == 3);
+        Assertions.assertTrue(failed.get());
+        Assertions.assertTrue(controller.isRunning());
+        controller.stop();
+    }
+}
@@ -0,0 +1,176 @@
+package com.project.app.elevator;
+
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.SecurityType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class ConcurrentElevatorTest {
+
+    private List<String> floorLabels(int numFloors) {
+        List<String> floors = new ArrayList<>();
+        for (int i = 0; i < numFloors; i++) {
+            floors.add(String.valueOf(i + 1));
+        }
+        return floors;
+    }
+
+    private ConcurrentElevator buildElevator(int numFloors) {
+        return ConcurrentElevator.builder()
+                .floors(floorLabels(numFloors))
+                .securityType(SecurityType.NONE)
+                .defaultFloor(0)
+                .currentFloor(0)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Concurrent Elevator Follows Collective Control")
+    void moveCurrentFloor_followsCollectiveControl() {
+        ConcurrentElevator elevator = buildElevator(8);
+        elevator.callButtonPressed(5, FloorDirection.DOWN);
+        elevator.callButtonPressed(2, FloorDirection.UP);
+        elevator.callButtonPressed(2, FloorDirection.UP);
+        elevator.interiorButtonPressed("7");
+        Assertions.assertEquals(FloorDirection.UP, elevator.getFloorDirection(2));
+        Assertions.assertEquals(3, elevator.getRegisteredRequests());
+
+        elevator.moveCurrentFloor();
+        Assertions.assertEquals(2, elevator.getCurrentFloor());
+        Assertions.assertEquals(DoorStatus.OPEN, elevator.getDoorStatus());
+        elevator.moveCurrentFloor();
+        Assertions.assertEquals(6, elevator.getCurrentFloor());
+        elevator.moveCurrentFloor();
+        Assertions.assertEquals(5, elevator.getCurrentFloor());
+        Assertions.assertEquals(-1, elevator.getDirection());
+        elevator.moveCurrentFloor();
+        Assertions.assertEquals(0, elevator.getCurrentFloor());
+        Assertions.assertEquals(3, elevator.getServedRequests());
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> elevator.callButtonPressed(7, FloorDirection.UP));
+        Assertions.assertThrows(NullPointerException.class,
+                () -> elevator.callButtonPressed(3, null));
+    }
+
+    @Test
+    @DisplayName("Hall Call At Current Floor Opens The Door")
+    void callButtonPressed_atCurrentFloorOpensDoor() {
+        ConcurrentElevator elevator = buildElevator(8);
+        elevator.callButtonPressed(0, FloorDirection.UP);
+        Assertions.assertEquals(DoorStatus.OPEN, elevator.getDoorStatus());
+        Assertions.assertEquals(FloorDirection.NONE, elevator.getFloorDirection(0));
+        Assertions.assertEquals(0, elevator.getRegisteredRequests());
+
+        // Same outcome as ElevatorImpl for the same presses
+        ElevatorImpl car = TestElevators.car(8).build();
+        car.callButtonPressed(0, FloorDirection.UP);
+        Assertions.assertEquals(car.getDoorStatus(), elevator.getDoorStatus());
+        Assertions.assertEquals(car.getFloorsToVisit().get(0), elevator.getFloorDirection(0));
+    }
+
+    @Test
+    @DisplayName("Concurrent Button Presses Are Never Lost")
+    void buttonPresses_areNeverLost() throws Exception {
+        int numFloors = 150;
+        int panels = 8;
+        int pressesPerPanel = 20_000;
+        ConcurrentElevator elevator = buildElevator(numFloors);
+        ExecutorService executor = Executors.newFixedThreadPool(panels + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch pressesDone = new CountDownLatch(panels);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < panels; p++) {
+            int seed = p;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < pressesPerPanel; i++) {
+                    int floor = random.nextInt(numFloors);
+                    if (random.nextBoolean()) {
+                        elevator.interiorButtonPressed(elevator.getFloors().get(floor));
+                    } else if (floor == 0 || (floor < numFloors - 1 && random.nextBoolean())) {
+                        elevator.callButtonPressed(floor, FloorDirection.UP);
+                    } else {
+                        elevator.callButtonPressed(floor, FloorDirection.DOWN);
+                    }
+                }
+                pressesDone.countDown();
+                return null;
+            }));
+        }
+        // Single motion controller keeps moving until every request has been served
+        Future<?> motion = executor.submit(() -> {
+            start.await();
+            while (pressesDone.getCount() > 0 || elevator.getPendingRequests() > 0) {
+                elevator.moveCurrentFloor();
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        motion.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // A request whose bit was lost would be registered but never served
+        Assertions.assertEquals(0, elevator.getPendingRequests());
+        Assertions.assertEquals(elevator.getRegisteredRequests(), elevator.getServedRequests());
+        Assertions.assertTrue(elevator.getRegisteredRequests() > 0);
+    }
+
+    @Test
+    @DisplayName("One Authentication Registers One Car Request")
+    void addFloor_consumesAuthenticationOnce() throws Exception {
+        int numFloors = 16;
+        int panels = numFloors - 1;
+        ConcurrentElevator elevator = ConcurrentElevator.builder()
+                .floors(floorLabels(numFloors))
+                .securityType(SecurityType.GENERAL)
+                .authorizedUsers(List.of("card"))
+                .defaultFloor(0)
+                .currentFloor(0)
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(panels);
+
+        for (int round = 1; round <= 200; round++) {
+            elevator.authenticateFloors("card", null);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 1; p <= panels; p++) {
+                String button = elevator.getFloors().get(p);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    elevator.interiorButtonPressed(button);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            Assertions.assertEquals(round, elevator.getRegisteredRequests());
+            Assertions.assertEquals(1, elevator.getPendingRequests());
+            Assertions.assertFalse(elevator.isAuthenticated());
+            // Serves the request and returns to the default floor so the next round starts below it
+            elevator.moveCurrentFloor();
+            elevator.moveCurrentFloor();
+            Assertions.assertEquals(0, elevator.getCurrentFloor());
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,155 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+class DispatcherTest {
+
+    private long time;
+    private Dispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        time = 0;
+        dispatcher = new Dispatcher(Arrays.asList(buildCar(0), buildCar(7)), () -> time);
+    }
+
+    private ElevatorImpl buildCar(int currentFloor) {
+        return TestElevators.car(8).currentFloor(currentFloor).build();
+    }
+
+    @Test
+    @DisplayName("Call Button Pressed Assigns Closest Car")
+    void callButtonPressed_assignsClosestCar() {
+        Assertions.assertEquals(0, dispatcher.callButtonPressed(2, FloorDirection.UP));
+        Assertions.assertEquals(FloorDirection.UP, dispatcher.getCar(0).getFloorsToVisit().get(2));
+        Assertions.assertEquals(1, dispatcher.callButtonPressed(5, FloorDirection.DOWN));
+        Assertions.assertEquals(FloorDirection.DOWN, dispatcher.getCar(1).getFloorsToVisit().get(5));
+
+        // Repeated call is not assigned a second time
+        Assertions.assertEquals(0, dispatcher.callButtonPressed(2, FloorDirection.UP));
+        Assertions.assertEquals(FloorDirection.NONE, dispatcher.getCar(1).getFloorsToVisit().get(2));
+    }
+
+    @Test
+    @DisplayName("Call Button Pressed With Invalid Inputs Should Fail")
+    void callButtonPressed_failsWithInvalidInputs() {
+        Assertions.assertThrows(NullPointerException.class,
+                () -> dispatcher.callButtonPressed(0, null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> dispatcher.callButtonPressed(-1, FloorDirection.UP));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> dispatcher.callButtonPressed(0, FloorDirection.DOWN));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> dispatcher.callButtonPressed(7, FloorDirection.UP));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> dispatcher.callButtonPressed(3, FloorDirection.BOTH));
+    }
+
+    @Test
+    @DisplayName("Estimate Time To Arrival Follows Car Route")
+    void estimateTimeToArrival_followsCarRoute() {
+        ElevatorImpl car = dispatcher.getCar(0);
+        car.callButtonPressed(5, FloorDirection.UP);
+        car.setDirection(1);
+        // On the way up: 3 floors of travel
+        Assertions.assertEquals(3 * Dispatcher.FLOOR_TRAVEL_TIME,
+                dispatcher.estimateTimeToArrival(car, 3, FloorDirection.UP));
+        // Opposite direction: up to the stop at 5, then back down to 3
+        Assertions.assertEquals(7 * Dispatcher.FLOOR_TRAVEL_TIME + Dispatcher.STOP_TIME,
+                dispatcher.estimateTimeToArrival(car, 3, FloorDirection.DOWN));
+    }
+
+    @Test
+    @DisplayName("Wait Times Are Recorded When Calls Are Served")
+    void moveCar_recordsWaitTimes() {
+        dispatcher.callButtonPressed(3, FloorDirection.UP);
+        time = 40;
+        dispatcher.moveCar(1);
+        Assertions.assertEquals(0, dispatcher.getGroupWaitTimes().getCount());
+        dispatcher.moveCar(0);
+        Assertions.assertEquals(3, dispatcher.getCar(0).getCurrentFloor());
+        Assertions.assertEquals(1, dispatcher.getCarWaitTimes(0).getCount());
+        Assertions.assertEquals(40, dispatcher.getCarWaitTimes(0).getMax());
+        Assertions.assertEquals(0, dispatcher.getCarWaitTimes(1).getCount());
+        Assertions.assertEquals(40, dispatcher.getGroupWaitTimes().getMax());
+
+        // Call at a car's current floor is served immediately
+        dispatcher.callButtonPressed(3, FloorDirection.DOWN);
+        Assertions.assertEquals(2, dispatcher.getGroupWaitTimes().getCount());
+        Assertions.assertEquals(20, dispatcher.getGroupWaitTimes().getMean());
+    }
+
+    @Test
+    @DisplayName("Destination Calls Group Riders Going To The Same Floor")
+    void destinationCallPressed_groupsRidersByDestination() {
+        dispatcher.getCar(1).setCurrentFloor(1);
+        // Cars waiting at the rider's floor take them and plan the destination stop
+        Assertions.assertEquals(0, dispatcher.destinationCallPressed(0, 5));
+        Assertions.assertEquals(FloorDirection.UP, dispatcher.getCar(0).getFloorsToVisit().get(5));
+        Assertions.assertEquals(1, dispatcher.destinationCallPressed(1, 6));
+        Assertions.assertEquals(FloorDirection.UP, dispatcher.getCar(1).getFloorsToVisit().get(6));
+
+        // Car 0 is waiting at floor 0, but car 1 already stops at floor 6 and does not stop at floor 5 on the way
+        Assertions.assertEquals(1, dispatcher.destinationCallPressed(0, 6));
+        Assertions.assertEquals(FloorDirection.UP, dispatcher.getCar(1).getFloorsToVisit().get(0));
+        Assertions.assertEquals(FloorDirection.NONE, dispatcher.getCar(0).getFloorsToVisit().get(6));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dispatcher.destinationCallPressed(3, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dispatcher.destinationCallPressed(0, 8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dispatcher.destinationCallPressed(-1, 2));
+    }
+
+    @Test
+    @DisplayName("Destination Is Loaded Once Car Stops For Rider")
+    void destinationCallPressed_loadsDestinationAtOrigin() {
+        Assertions.assertEquals(1, dispatcher.destinationCallPressed(5, 1));
+        ElevatorImpl car = dispatcher.getCar(1);
+        // Idle car could set off either way, so floor 1 is not requested before the rider boards
+        Assertions.assertEquals(FloorDirection.DOWN, car.getFloorsToVisit().get(5));
+        Assertions.assertEquals(FloorDirection.NONE, car.getFloorsToVisit().get(1));
+
+        time = 30;
+        dispatcher.moveCar(1);
+        Assertions.assertEquals(5, car.getCurrentFloor());
+        Assertions.assertEquals(FloorDirection.DOWN, car.getFloorsToVisit().get(1));
+        Assertions.assertEquals(30, dispatcher.getCarWaitTimes(1).getMax());
+        dispatcher.moveCar(1);
+        Assertions.assertEquals(1, car.getCurrentFloor());
+    }
+
+    @Test
+    @DisplayName("Estimates And Destinations Follow Car Policy")
+    void estimatesAndDestinations_followCarPolicy() {
+        ElevatorImpl car = dispatcher.getCar(0);
+        car.setCurrentFloor(3);
+        car.callButtonPressed(5, FloorDirection.UP);
+        car.setDirection(1);
+        // Collective control turns at the stop at 5 and comes back down to 2
+        Assertions.assertEquals(5 * Dispatcher.FLOOR_TRAVEL_TIME + Dispatcher.STOP_TIME,
+                dispatcher.estimateTimeToArrival(car, 2, FloorDirection.DOWN));
+        // SCAN carries on to the top floor before coming back
+        car.setSchedulingPolicy(new ScanPolicy());
+        Assertions.assertEquals(9 * Dispatcher.FLOOR_TRAVEL_TIME + Dispatcher.STOP_TIME,
+                dispatcher.estimateTimeToArrival(car, 2, FloorDirection.DOWN));
+
+        // Shortest seek may go to the destination first, so it is only given once the rider boards
+        ElevatorImpl seek = buildCar(2);
+        seek.setSchedulingPolicy(new ShortestSeekPolicy());
+        seek.callButtonPressed(3, FloorDirection.UP);
+        seek.setDirection(1);
+        Dispatcher seekDispatcher = new Dispatcher(List.of(seek), () -> time);
+        Assertions.assertEquals(0, seekDispatcher.destinationCallPressed(4, 6));
+        Assertions.assertEquals(FloorDirection.NONE, seek.getFloorsToVisit().get(6));
+        seekDispatcher.moveCar(0);
+        seekDispatcher.moveCar(0);
+        Assertions.assertEquals(4, seek.getCurrentFloor());
+        Assertions.assertEquals(FloorDirection.UP, seek.getFloorsToVisit().get(6));
+    }
+}
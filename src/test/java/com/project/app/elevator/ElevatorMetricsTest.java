@@ -0,0 +1,105 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.SecurityType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ElevatorMetricsTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    private ElevatorImpl buildCar(SecurityType securityType) {
+        return buildCar(securityType, new CollectiveControlPolicy());
+    }
+
+    private ElevatorImpl buildCar(SecurityType securityType, SchedulingPolicy policy) {
+        return TestElevators.car(8)
+                .securityType(securityType)
+                .authorizedUsers(new ArrayList<>(List.of("Joe")))
+                .metrics(new ElevatorMetrics(8, clock::get))
+                .schedulingPolicy(policy)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Metrics Record Wait And Service Times")
+    void metrics_recordWaitAndServiceTimes() {
+        ElevatorImpl elevator = buildCar(SecurityType.NONE);
+        elevator.callButtonPressed(2, FloorDirection.UP);
+        clock.set(100);
+        elevator.interiorButtonPressed("6");
+        clock.set(500);
+        elevator.moveCurrentFloor();
+        clock.set(900);
+        elevator.moveCurrentFloor();
+        // Hall call below the car going down makes it reverse
+        elevator.callButtonPressed(1, FloorDirection.DOWN);
+        clock.set(1000);
+        elevator.moveCurrentFloor();
+        elevator.moveCurrentFloor();
+
+        ElevatorMetrics.Snapshot metrics = elevator.getMetrics().snapshot();
+        Assertions.assertEquals(2, metrics.hallCalls());
+        Assertions.assertEquals(1, metrics.carCalls());
+        Assertions.assertEquals(3, metrics.stops());
+        Assertions.assertEquals(1, metrics.reversals());
+        Assertions.assertEquals(1, metrics.defaultFloorResets());
+        Assertions.assertEquals(2, metrics.waitTimes().count());
+        Assertions.assertEquals(500, metrics.waitTimes().max());
+        Assertions.assertEquals(1, metrics.serviceTimes().count());
+        Assertions.assertEquals(800, metrics.serviceTimes().max());
+        Assertions.assertEquals(1, metrics.floors().get(2).upCalls());
+        Assertions.assertEquals(500, metrics.floors().get(2).upMeanWait());
+        Assertions.assertEquals(1, metrics.floors().get(1).downCalls());
+        Assertions.assertEquals(100, metrics.floors().get(1).downMeanWait());
+    }
+
+    @Test
+    @DisplayName("Metrics Count Auth Failures And Drop Cleared Calls")
+    void metrics_countAuthFailuresAndDropClearedCalls() {
+        ElevatorImpl elevator = buildCar(SecurityType.GENERAL);
+        elevator.authenticateFloors("Jeff", elevator.getAuthorizedFloors());
+        elevator.authenticateFloors("Joe", elevator.getAuthorizedFloors());
+        elevator.callButtonPressed(4, FloorDirection.DOWN);
+        elevator.interiorButtonPressed("emergency");
+        elevator.callButtonPressed(4, FloorDirection.DOWN);
+        clock.set(50);
+        elevator.moveCurrentFloor();
+
+        ElevatorMetrics.Snapshot metrics = elevator.getMetrics().snapshot();
+        Assertions.assertEquals(1, metrics.authFailures());
+        Assertions.assertEquals(1, metrics.waitTimes().count());
+        Assertions.assertEquals(50, metrics.waitTimes().max());
+    }
+
+    @Test
+    @DisplayName("Metrics Record Opposite Calls Answered By LOOK")
+    void metrics_recordOppositeCallsAnsweredByLook() {
+        ElevatorImpl elevator = buildCar(SecurityType.NONE, new LookPolicy());
+        elevator.callButtonPressed(4, FloorDirection.DOWN);
+        elevator.callButtonPressed(6, FloorDirection.DOWN);
+        clock.set(100);
+        // LOOK stops at 4 on the way up and answers its down call
+        elevator.moveCurrentFloor();
+        clock.set(200);
+        elevator.moveCurrentFloor();
+        clock.set(1000);
+        elevator.callButtonPressed(4, FloorDirection.DOWN);
+        clock.set(1200);
+        elevator.moveCurrentFloor();
+
+        ElevatorMetrics.Snapshot metrics = elevator.getMetrics().snapshot();
+        Assertions.assertEquals(4, elevator.getCurrentFloor());
+        Assertions.assertEquals(3, metrics.stops());
+        Assertions.assertEquals(3, metrics.waitTimes().count());
+        // The second call at 4 waited from 1000, not from the call answered at 100
+        Assertions.assertEquals(200, metrics.waitTimes().max());
+        Assertions.assertEquals(2, metrics.floors().get(4).downCalls());
+        Assertions.assertEquals(150, metrics.floors().get(4).downMeanWait());
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ElevatorSnapshotTest {
+
+    @Test
+    @DisplayName("Version Changes Only When The Car Changes")
+    void version_changesOnlyWhenTheCarChanges() {
+        ElevatorImpl elevator = TestElevators.car(100).build();
+        Assertions.assertNull(elevator.getSnapshot());
+
+        ElevatorSnapshot first = elevator.publishSnapshot();
+        Assertions.assertEquals(1, first.getVersion());
+        Assertions.assertSame(first, elevator.publishSnapshot());
+        Assertions.assertSame(first, elevator.getSnapshot());
+
+        elevator.callButtonPressed(70, FloorDirection.DOWN);
+        ElevatorSnapshot second = elevator.publishSnapshot();
+        Assertions.assertEquals(2, second.getVersion());
+        Assertions.assertTrue(second.isDownRequested(70));
+        Assertions.assertFalse(second.isUpRequested(70));
+        Assertions.assertTrue(second.isRequested(70));
+        Assertions.assertFalse(second.isRequested(69));
+        Assertions.assertEquals(100, second.getNumFloors());
+
+        // Published snapshots keep their state when the car moves on
+        elevator.moveCurrentFloor();
+        ElevatorSnapshot third = elevator.publishSnapshot();
+        Assertions.assertEquals(3, third.getVersion());
+        Assertions.assertEquals(0, second.getCurrentFloor());
+        Assertions.assertEquals(0, second.getDirection());
+        Assertions.assertTrue(second.isRequested(70));
+        Assertions.assertEquals(70, third.getCurrentFloor());
+        Assertions.assertFalse(third.isRequested(70));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> third.isRequested(100));
+    }
+
+    @Test
+    @DisplayName("Controller Publishes Snapshots Of Running Cars")
+    void controller_publishesSnapshotsOfRunningCars() throws InterruptedException {
+        List<ElevatorImpl> cars = new ArrayList<>(List.of(TestElevators.car(8).build(), TestElevators.car(8).build()));
+        CarController controller = CarController.builder()
+                .cars(cars)
+                .floorTravelTime(1)
+                .doorDwellTime(1)
+                .idleReturnTime(60_000)
+                .build();
+        controller.start();
+        ElevatorSnapshot started = controller.getSnapshot(1);
+        Assertions.assertNotNull(started);
+        Assertions.assertEquals(0, started.getCurrentFloor());
+
+        controller.callButtonPressed(1, 5, FloorDirection.UP);
+        TestElevators.awaitSnapshot(cars.get(1), snapshot -> snapshot.getCurrentFloor() == 5);
+        controller.stop();
+
+        ElevatorSnapshot served = controller.getSnapshot(1);
+        Assertions.assertTrue(served.getVersion() > started.getVersion());
+        Assertions.assertEquals(5, served.getCurrentFloor());
+        Assertions.assertFalse(served.isRequested(5));
+        Assertions.assertEquals(0, controller.getSnapshot(0).getCurrentFloor());
+    }
+}
@@ -1,15 +1,25 @@
 package com.project.app.elevator;
 
 import com.project.app.util.DoorStatus;
+import com.project.app.util.EventJournal;
 import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorSet;
+import com.project.app.util.JournalEventType;
 import com.project.app.util.SecurityType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
 
 class ElevatorTest {
 
@@ -210,6 +220,23 @@ class ElevatorTest {
         Assertions.assertNotEquals(elevator.getAuthorizedFloors(), boolArr1111);
     }
 
+    @Test
+    @DisplayName("Authenticate After Authorized Users Change")
+    void authenticate_afterAuthorizedUsersChange() {
+        // Added users can authenticate, revoked users can't, without rebuilding the elevator
+        elevator.setSecurityType(SecurityType.GENERAL);
+        elevator.addAuthorizedUser("Larry");
+        elevator.authenticate("Larry", boolArr0101);
+        Assertions.assertTrue(elevator.getAuthenticated());
+        elevator.revokeAuthorizedUser("Joe");
+        elevator.authenticate("Joe", boolArr0101);
+        Assertions.assertFalse(elevator.getAuthenticated());
+        // Unknown and missing cards are never authorized
+        elevator.authenticate(null, boolArr1111);
+        Assertions.assertFalse(elevator.getAuthenticated());
+        Assertions.assertTrue(elevator.getAuthorizedUsers().contains("Sarah"));
+    }
+
     @Test
     @DisplayName("Move Current Floor With Normal Inputs")
     void moveCurrentFloor_withNormalInputs() {
@@ -254,6 +281,33 @@ class ElevatorTest {
 
     }
 
+    @Test
+    @DisplayName("Move Current Floor In Tall Building")
+    void moveCurrentFloor_inTallBuilding() {
+        int numFloors = 100_000;
+        ArrayList<String> floors = new ArrayList<>();
+        for (int i = 0; i < numFloors; i++) {
+            floors.add(String.valueOf(i + 1));
+        }
+        elevator.setFloors(floors);
+        elevator.setFloorsToVisit(new ArrayList<>(Collections.nCopies(numFloors, FloorDirection.NONE)));
+        elevator.setAuthorizedFloors(new ArrayList<>(Collections.nCopies(numFloors, false)));
+        elevator.callButtonPressed(numFloors - 1, FloorDirection.DOWN);
+        elevator.callButtonPressed(1, FloorDirection.UP);
+        elevator.setCurrentFloor(2);
+        elevator.setDirection(1);
+
+        // Nothing requested UP above floor 2, so the top floor is visited going DOWN, then floor 1 going UP
+        elevator.moveCurrentFloor();
+        Assertions.assertEquals(numFloors - 1, elevator.getCurrentFloor());
+        Assertions.assertEquals(-1, elevator.getDirection());
+        elevator.moveCurrentFloor();
+        Assertions.assertEquals(1, elevator.getCurrentFloor());
+        Assertions.assertEquals(1, elevator.getDirection());
+        elevator.moveCurrentFloor();
+        Assertions.assertEquals(elevator.getDefaultFloor(), elevator.getCurrentFloor());
+    }
+
     @Test
     @DisplayName("Button Pressed Add Floor when Security Type is NONE")
     void interiorButtonPressed_addFloorWhenSecurityTypeIsNone() {
@@ -373,4 +427,166 @@ class ElevatorTest {
         Assertions.assertEquals(1, elevator.getDirection());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Journal Records State Transitions")
+    void journal_recordsStateTransitions(@TempDir Path tempDir) throws IOException {
+        try (EventJournal journal = new EventJournal(tempDir)) {
+            elevator.setJournal(journal);
+            elevator.callButtonPressed(2, FloorDirection.DOWN);
+            elevator.moveCurrentFloor();
+            elevator.authenticate("Joe", boolArr1111);
+            elevator.interiorButtonPressed("1");
+            elevator.interiorButtonPressed("emergency");
+        }
+
+        List<JournalEventType> types = new ArrayList<>();
+        EventJournal.read(tempDir, event -> types.add(event.type()));
+        Assertions.assertEquals(List.of(
+                JournalEventType.HALL_CALL_REGISTERED,
+                JournalEventType.STOP_SERVED,
+                JournalEventType.DOOR_OPENED,
+                JournalEventType.AUTH_SUCCEEDED,
+                JournalEventType.CAR_CALL_REGISTERED,
+                JournalEventType.EMERGENCY,
+                JournalEventType.DOOR_CLOSED), types);
+    }
+
+    @Test
+    @DisplayName("Interior Button Codes Match Labels")
+    void interiorButtonCodes_matchLabels() {
+        Assertions.assertEquals(2, elevator.buttonCode("3"));
+        Assertions.assertEquals(ElevatorImpl.OPEN_BUTTON, elevator.buttonCode("open"));
+        Assertions.assertEquals(ElevatorImpl.EMERGENCY_BUTTON, elevator.buttonCode("emergency"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> elevator.buttonCode("5"));
+
+        elevator.interiorButtonPressed(2);
+        Assertions.assertEquals(FloorDirection.UP, elevator.getFloorsToVisit().get(2));
+        elevator.interiorButtonPressed(ElevatorImpl.OPEN_BUTTON);
+        Assertions.assertEquals(DoorStatus.OPEN, elevator.getDoorStatus());
+        elevator.interiorButtonPressed(ElevatorImpl.CLOSE_BUTTON);
+        Assertions.assertEquals(DoorStatus.CLOSED, elevator.getDoorStatus());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> elevator.interiorButtonPressed(4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> elevator.interiorButtonPressed(-4));
+
+        // New floors are picked up, and a floor labelled like a command button is the floor
+        elevator.setFloors(new ArrayList<>(List.of("B", "L", "open", "3")));
+        Assertions.assertEquals(1, elevator.buttonCode("L"));
+        Assertions.assertEquals(2, elevator.buttonCode("open"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> elevator.buttonCode("1"));
+    }
+
+    @Test
+    @DisplayName("Press Buttons Rejects Invalid Events And Merges Repeats")
+    void pressButtons_rejectsInvalidEventsAndMergesRepeats() {
+        long[] accepted = elevator.pressButtons(new int[]{
+                ButtonEvents.hallCall(1, FloorDirection.UP),
+                ButtonEvents.hallCall(1, FloorDirection.UP),
+                ButtonEvents.hallCall(3, FloorDirection.UP),
+                ButtonEvents.hallCall(0, FloorDirection.DOWN),
+                ButtonEvents.carCall(9),
+                3,
+                ButtonEvents.carCall(2),
+                ButtonEvents.hallCall(0, FloorDirection.UP)});
+        Assertions.assertArrayEquals(new long[]{0b11000011}, accepted);
+        Assertions.assertEquals(List.of(FloorDirection.NONE, FloorDirection.UP, FloorDirection.UP, FloorDirection.NONE),
+                elevator.getFloorsToVisit());
+        // Hall call at the current floor opens the door
+        Assertions.assertEquals(DoorStatus.OPEN, elevator.getDoorStatus());
+
+        // One authentication is good for one car call
+        elevator.setSecurityType(SecurityType.GENERAL);
+        elevator.setAuthenticated(true);
+        Assertions.assertArrayEquals(new long[]{0b01},
+                elevator.pressButtons(new int[]{ButtonEvents.carCall(3), ButtonEvents.carCall(1)}));
+        Assertions.assertEquals(FloorDirection.UP, elevator.getFloorsToVisit().get(3));
+        Assertions.assertFalse(elevator.getAuthenticated());
+        Assertions.assertArrayEquals(new long[0], elevator.pressButtons(new int[0]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ButtonEvents.hallCall(1, FloorDirection.BOTH));
+    }
+
+    @Test
+    @DisplayName("Press Buttons Reports Each Event Of A Long Mixed Batch")
+    void pressButtons_reportsEachEventOfLongMixedBatch() {
+        ElevatorImpl car = buildCar(16);
+        car.setSecurityType(SecurityType.SPECIFIED);
+        ArrayList<Boolean> allowed = new ArrayList<>(Collections.nCopies(16, false));
+        allowed.set(9, true);
+        car.authenticateFloors("Joe", FloorSet.of(allowed));
+        // The batch starts after an invalid event that is not part of it, and spans two words of the bitmap
+        int[] events = new int[71];
+        events[0] = -1;
+        Arrays.fill(events, 1, 65, ButtonEvents.hallCall(2, FloorDirection.UP));
+        events[65] = ButtonEvents.carCall(5);
+        events[66] = ButtonEvents.carCall(9);
+        events[67] = ButtonEvents.carCall(9);
+        events[68] = -1;
+        events[69] = ButtonEvents.hallCall(15, FloorDirection.UP);
+        events[70] = ButtonEvents.hallCall(15, FloorDirection.DOWN);
+        IntBuffer batch = IntBuffer.wrap(events, 1, 70);
+
+        long[] accepted = car.pressButtons(batch);
+        // Floor 5 is not allowed, and the second car call to 9 comes after the authentication was used
+        Assertions.assertArrayEquals(new long[]{-1L, 0b100010}, accepted);
+        Assertions.assertEquals(1, batch.position());
+        ArrayList<FloorDirection> expected = new ArrayList<>(Collections.nCopies(16, FloorDirection.NONE));
+        expected.set(2, FloorDirection.UP);
+        expected.set(9, FloorDirection.UP);
+        expected.set(15, FloorDirection.DOWN);
+        Assertions.assertEquals(expected, car.getFloorsToVisit());
+        Assertions.assertFalse(car.getAuthenticated());
+    }
+
+    @Test
+    @DisplayName("Press Buttons Matches Single Presses")
+    void pressButtons_matchesSinglePresses() {
+        ElevatorImpl single = buildCar(16);
+        ElevatorImpl batch = buildCar(16);
+        SplittableRandom random = new SplittableRandom(3);
+        int travellingBursts = 0;
+        for (int burst = 0; burst < 50; burst++) {
+            int currentFloor = random.nextInt(16);
+            boolean authenticated = random.nextBoolean();
+            // Some bursts reach a car that has set off from currentFloor, as under a CarController
+            boolean travelling = random.nextBoolean();
+            for (ElevatorImpl car : List.of(single, batch)) {
+                car.setCurrentFloor(currentFloor);
+                car.setAuthenticated(authenticated);
+                car.interiorButtonPressed("close");
+                if (travelling) {
+                    car.depart();
+                }
+            }
+            if (batch.isTravelling()) {
+                travellingBursts++;
+            }
+            int[] events = new int[random.nextInt(1, 20)];
+            for (int i = 0; i < events.length; i++) {
+                int floor = random.nextInt(16);
+                if (random.nextInt(3) == 0) {
+                    events[i] = ButtonEvents.carCall(floor);
+                    single.interiorButtonPressed(single.getFloors().get(floor));
+                } else {
+                    FloorDirection callDir = floor == 0 || (floor != 15 && random.nextBoolean()) ?
+                            FloorDirection.UP : FloorDirection.DOWN;
+                    events[i] = ButtonEvents.hallCall(floor, callDir);
+                    single.callButtonPressed(floor, callDir);
+                }
+            }
+            batch.pressButtons(events);
+
+            Assertions.assertEquals(single.getFloorsToVisit(), batch.getFloorsToVisit());
+            Assertions.assertEquals(single.getDoorStatus(), batch.getDoorStatus());
+            Assertions.assertEquals(single.getAuthenticated(), batch.getAuthenticated());
+            single.moveCurrentFloor();
+            batch.moveCurrentFloor();
+        }
+        Assertions.assertTrue(travellingBursts > 0);
+    }
+
+    private ElevatorImpl buildCar(int numFloors) {
+        return TestElevators.car(numFloors)
+                .securityType(SecurityType.GENERAL)
+                .authorizedUsers(new ArrayList<>(List.of("Joe")))
+                .build();
+    }
+}
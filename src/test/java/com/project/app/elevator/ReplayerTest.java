@@ -0,0 +1,89 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.SecurityType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+class ReplayerTest {
+
+    private ElevatorImpl buildCar(int defaultFloor) {
+        return TestElevators.car(8)
+                .securityType(SecurityType.GENERAL)
+                .defaultFloor(defaultFloor)
+                .authorizedUsers(new ArrayList<>(List.of("Joe")))
+                .build();
+    }
+
+    // Random mix of every input, including invalid calls
+    private byte[] record(ElevatorImpl car, int inputs) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Random random = new Random(42);
+        try (RecordingElevator recorder = new RecordingElevator(car, bytes)) {
+            for (int i = 0; i < inputs; i++) {
+                try {
+                    switch (random.nextInt(4)) {
+                        case 0 -> recorder.callButtonPressed(random.nextInt(8),
+                                random.nextBoolean() ? FloorDirection.UP : FloorDirection.DOWN);
+                        case 1 -> recorder.interiorButtonPressed(String.valueOf(1 + random.nextInt(8)));
+                        case 2 -> recorder.authenticate(random.nextBoolean() ? "Joe" : "Larry",
+                                new ArrayList<>(Collections.nCopies(8, true)));
+                        default -> recorder.moveCurrentFloor();
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Invalid calls are recorded as failed
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Replay Of Recording Matches Recorded States")
+    void replay_matchesRecordedStates() throws IOException {
+        byte[] recording = record(buildCar(0), 5_000);
+        Replayer.ReplayResult result = Replayer.replay(new ByteArrayInputStream(recording), buildCar(0));
+        Assertions.assertEquals(5_000, result.inputs());
+        Assertions.assertTrue(result.matches(), String.join("\n", result.differences()));
+    }
+
+    @Test
+    @DisplayName("Replay Reports Differences")
+    void replay_reportsDifferences() throws IOException {
+        byte[] recording = record(buildCar(0), 5_000);
+        // Car that parks somewhere else behaves differently
+        Replayer.ReplayResult result = Replayer.replay(new ByteArrayInputStream(recording), buildCar(4));
+        Assertions.assertFalse(result.matches());
+        Assertions.assertFalse(result.differences().isEmpty());
+
+        Assertions.assertThrows(IOException.class,
+                () -> Replayer.replay(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5}), buildCar(0)));
+    }
+
+    @Test
+    @DisplayName("Inputs That Cannot Be Written As UTF Are Recorded Whole")
+    void record_keepsInputsWithNullsAndLongLabels() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (RecordingElevator recorder = new RecordingElevator(buildCar(0), bytes)) {
+            Assertions.assertThrows(RuntimeException.class, () -> recorder.interiorButtonPressed(null));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> recorder.interiorButtonPressed("x".repeat(70_000)));
+            // GENERAL security ignores the floors, so the car accepts null
+            recorder.authenticateFloors("Joe", null);
+            recorder.interiorButtonPressed("6");
+            recorder.moveCurrentFloor();
+        }
+        Replayer.ReplayResult result = Replayer.replay(new ByteArrayInputStream(bytes.toByteArray()), buildCar(0));
+        Assertions.assertEquals(5, result.inputs());
+        Assertions.assertTrue(result.matches(), String.join("\n", result.differences()));
+    }
+}
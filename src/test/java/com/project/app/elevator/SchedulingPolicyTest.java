@@ -0,0 +1,94 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorRequestTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class SchedulingPolicyTest {
+
+    // Car at floor 3 going up, up call at 1, down calls at 4 and 6
+    private FloorRequestTable buildRequests() {
+        List<FloorDirection> floors = new ArrayList<>(Collections.nCopies(8, FloorDirection.NONE));
+        floors.set(1, FloorDirection.UP);
+        floors.set(4, FloorDirection.DOWN);
+        floors.set(6, FloorDirection.DOWN);
+        return FloorRequestTable.copyOf(floors);
+    }
+
+    @Test
+    @DisplayName("Policies Choose Different Next Stops")
+    void policies_chooseDifferentNextStops() {
+        FloorRequestTable requests = buildRequests();
+
+        // Collective control passes the down call at 4 and turns at the furthest one
+        Assertions.assertEquals(new SchedulingPolicy.Stop(6, -1),
+                SchedulingPolicy.of("collective").nextStop(requests, 3, 1));
+        Assertions.assertEquals(new SchedulingPolicy.Stop(4, 1, true),
+                SchedulingPolicy.of("look").nextStop(requests, 3, 1));
+        Assertions.assertEquals(new SchedulingPolicy.Stop(7, -1),
+                SchedulingPolicy.of("scan").nextStop(requests, 3, 1));
+        Assertions.assertEquals(new SchedulingPolicy.Stop(4, -1),
+                SchedulingPolicy.of("shortest-seek").nextStop(requests, 3, 1));
+        Assertions.assertEquals(new SchedulingPolicy.Stop(4, -1),
+                SchedulingPolicy.of("eta").nextStop(requests, 3, 1));
+
+        // Going down from 5, the up call at 1 needs one reversal and the down call at 6 two
+        EtaCostPolicy eta = new EtaCostPolicy(Dispatcher.STOP_TIME);
+        Assertions.assertEquals(4 * Dispatcher.FLOOR_TRAVEL_TIME + Dispatcher.STOP_TIME, eta.cost(5, -1, 1, 1));
+        Assertions.assertEquals(Dispatcher.FLOOR_TRAVEL_TIME + 2 * Dispatcher.STOP_TIME, eta.cost(5, -1, 6, -1));
+        // From 2 going up, the up call at 1 is nearest but needs two reversals
+        Assertions.assertEquals(new SchedulingPolicy.Stop(4, -1), eta.nextStop(requests, 2, 1));
+        Assertions.assertEquals(new SchedulingPolicy.Stop(1, 1), new EtaCostPolicy(0).nextStop(requests, 2, 1));
+        // LOOK only turns at its last stop for a call going the other way
+        Assertions.assertEquals(new SchedulingPolicy.Stop(6, -1, true), new LookPolicy().nextStop(requests, 5, 1));
+        Assertions.assertEquals(new SchedulingPolicy.Stop(1, 1, true), new LookPolicy().nextStop(requests, 0, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SchedulingPolicy.of("elevator-algorithm"));
+        Assertions.assertNull(new LookPolicy().nextStop(FloorRequestTable.copyOf(
+                new ArrayList<>(Collections.nCopies(8, FloorDirection.NONE))), 3, 1));
+    }
+
+    @Test
+    @DisplayName("Car Follows Its Policy")
+    void car_followsItsPolicy() {
+        ElevatorImpl collective = buildCar(new CollectiveControlPolicy());
+        ElevatorImpl look = buildCar(new LookPolicy());
+        for (ElevatorImpl car : List.of(collective, look)) {
+            car.callButtonPressed(4, FloorDirection.DOWN);
+            car.callButtonPressed(6, FloorDirection.DOWN);
+            car.moveCurrentFloor();
+        }
+        // Collective control answers the down call at 6 first, LOOK stops at 4 on the way up and answers it
+        Assertions.assertEquals(6, collective.getCurrentFloor());
+        Assertions.assertEquals(4, look.getCurrentFloor());
+        Assertions.assertFalse(look.getFloorsToVisit().shouldStop(4, -1));
+        Assertions.assertTrue(look.getFloorsToVisit().shouldStop(6, -1));
+    }
+
+    @Test
+    @DisplayName("Only LOOK Clears Opposite Calls At A Stop")
+    void onlyLook_clearsOppositeCallsAtStop() {
+        for (String name : List.of("collective", "look", "scan", "shortest-seek", "eta")) {
+            ElevatorImpl car = buildCar(SchedulingPolicy.of(name));
+            car.callButtonPressed(4, FloorDirection.UP);
+            car.callButtonPressed(4, FloorDirection.DOWN);
+            car.callButtonPressed(6, FloorDirection.DOWN);
+            car.moveCurrentFloor();
+
+            // Every policy answers the up call at 4 first, only LOOK also answers the down call there
+            Assertions.assertEquals(4, car.getCurrentFloor(), name);
+            Assertions.assertFalse(car.getFloorsToVisit().shouldStop(4, 1), name);
+            Assertions.assertEquals(!name.equals("look"), car.getFloorsToVisit().shouldStop(4, -1), name);
+            Assertions.assertTrue(car.getFloorsToVisit().shouldStop(6, -1), name);
+        }
+    }
+
+    private ElevatorImpl buildCar(SchedulingPolicy policy) {
+        return TestElevators.car(8).schedulingPolicy(policy).build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.FloorSet;
+import com.project.app.util.SecurityType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ElevatorImpl buildCar(int numFloors) {
+        return TestElevators.car(numFloors)
+                .securityType(SecurityType.SPECIFIED)
+                .defaultFloor(1)
+                .authorizedUsers(new ArrayList<>(List.of("Joe", "Sam")))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Snapshot Restores Live State")
+    void snapshot_restoresLiveState() throws IOException {
+        ElevatorImpl first = buildCar(100);
+        ElevatorImpl second = buildCar(100);
+        // Both cars use one roster
+        second.applySettings(second.getSettings().withAuthorizedUsers(first.getAuthorizedUsers()));
+        first.callButtonPressed(70, FloorDirection.DOWN);
+        first.callButtonPressed(5, FloorDirection.UP);
+        first.moveCurrentFloor();
+        first.authenticateFloors("Joe", FloorSet.all(100));
+        second.callButtonPressed(99, FloorDirection.DOWN);
+
+        Path file = tempDir.resolve("cars.snapshot");
+        SnapshotFile.write(file, List.of(first, second));
+        List<ElevatorImpl> restored = SnapshotFile.restore(file, () -> Assertions.fail("Snapshot should be used"));
+
+        Assertions.assertEquals(2, restored.size());
+        ElevatorImpl car = restored.get(0);
+        Assertions.assertEquals(first.getFloors(), car.getFloors());
+        Assertions.assertEquals(first.getCurrentFloor(), car.getCurrentFloor());
+        Assertions.assertEquals(first.getDirection(), car.getDirection());
+        Assertions.assertEquals(first.getDoorStatus(), car.getDoorStatus());
+        Assertions.assertEquals(first.getAuthenticated(), car.getAuthenticated());
+        Assertions.assertEquals(first.getFloorsToVisit(), car.getFloorsToVisit());
+        Assertions.assertSame(FloorSet.all(100), car.getAuthorizedFloors());
+        Assertions.assertEquals(SecurityType.SPECIFIED, car.getSecurityType());
+        Assertions.assertEquals(1, car.getDefaultFloor());
+        Assertions.assertEquals(first.getAuthorizedUsers(), car.getAuthorizedUsers());
+        Assertions.assertSame(car.getAuthorizedUsers(), restored.get(1).getAuthorizedUsers());
+        Assertions.assertEquals(FloorDirection.DOWN, restored.get(1).getFloorsToVisit().get(99));
+    }
+
+    @Test
+    @DisplayName("Corrupt Snapshot Falls Back To Configs")
+    void corruptSnapshot_fallsBackToConfigs() throws IOException {
+        Path file = tempDir.resolve("cars.snapshot");
+        SnapshotFile.write(file, List.of(buildCar(8)));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        Assertions.assertThrows(IOException.class, () -> SnapshotFile.read(file));
+        ElevatorImpl fallback = buildCar(4);
+        Assertions.assertSame(fallback, SnapshotFile.restore(file, () -> List.of(fallback)).get(0));
+        Assertions.assertSame(fallback,
+                SnapshotFile.restore(tempDir.resolve("missing.snapshot"), () -> List.of(fallback)).get(0));
+    }
+
+    @Test
+    @DisplayName("Truncated Snapshot Is Rejected")
+    void truncatedSnapshot_isRejected() throws IOException {
+        Path file = tempDir.resolve("cars.snapshot");
+        SnapshotFile.write(file, List.of(buildCar(8)));
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, 10));
+        Assertions.assertThrows(IOException.class, () -> SnapshotFile.read(file));
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        Assertions.assertThrows(IOException.class, () -> SnapshotFile.read(file));
+
+        // Cut short with a header that matches, as if the writer had stopped in the middle of a car
+        byte[] payload = Arrays.copyOfRange(bytes, 24, bytes.length - 8);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer truncated = ByteBuffer.allocate(24 + payload.length).put(bytes, 0, 16)
+                .putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        Files.write(file, truncated.array());
+        IOException e = Assertions.assertThrows(IOException.class, () -> SnapshotFile.read(file));
+        Assertions.assertTrue(e.getMessage().startsWith("Corrupt snapshot"));
+    }
+
+    @Test
+    @DisplayName("Snapshot With Out Of Range State Is Rejected")
+    void snapshot_withOutOfRangeStateIsRejected() throws IOException {
+        SnapshotFile.CarImage image = SnapshotFile.capture(buildCar(8));
+        Path file = tempDir.resolve("cars.snapshot");
+
+        // A valid checksum does not make the saved state valid
+        SnapshotFile.writeImages(file, List.of(new SnapshotFile.CarImage(image.floors(), image.securityType(), 8,
+                image.authorizedUsers(), image.currentFloor(), image.direction(), image.doorStatus(),
+                image.authenticated(), image.upWords(), image.downWords(), image.authorizedFloors())));
+        IOException defaultFloor = Assertions.assertThrows(IOException.class, () -> SnapshotFile.read(file));
+        Assertions.assertTrue(defaultFloor.getMessage().contains("default floor out of range"));
+
+        SnapshotFile.writeImages(file, List.of(new SnapshotFile.CarImage(image.floors(), image.securityType(),
+                image.defaultFloor(), image.authorizedUsers(), image.currentFloor(), 2, image.doorStatus(),
+                image.authenticated(), image.upWords(), image.downWords(), image.authorizedFloors())));
+        IOException direction = Assertions.assertThrows(IOException.class, () -> SnapshotFile.read(file));
+        Assertions.assertTrue(direction.getMessage().contains("direction out of range"));
+    }
+
+    @Test
+    @DisplayName("Controller Saves Snapshot On Stop")
+    void controller_savesSnapshotOnStop() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("cars.snapshot");
+        CarController controller = CarController.builder()
+                .cars(List.of(buildCar(8)))
+                .snapshotFile(file)
+                .snapshotInterval(10)
+                .build();
+        controller.start();
+        controller.pause();
+        controller.callButtonPressed(0, 6, FloorDirection.DOWN);
+        // Written by the periodic writer while the car is running
+        TestElevators.await("periodic snapshot", () -> savedRequest(file, 6) == FloorDirection.DOWN);
+        controller.callButtonPressed(0, 3, FloorDirection.UP);
+        // Stop drops queued events, so the car must have applied the call first
+        TestElevators.awaitSnapshot(controller.getCar(0), snapshot -> snapshot.isUpRequested(3));
+        controller.stop();
+
+        ElevatorImpl restored = SnapshotFile.read(file).get(0);
+        Assertions.assertEquals(FloorDirection.DOWN, restored.getFloorsToVisit().get(6));
+        Assertions.assertEquals(FloorDirection.UP, restored.getFloorsToVisit().get(3));
+    }
+
+    // Request saved for a floor, null while no snapshot has been written
+    private static FloorDirection savedRequest(Path file, int floor) {
+        try {
+            return SnapshotFile.read(file).get(0).getFloorsToVisit().get(floor);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
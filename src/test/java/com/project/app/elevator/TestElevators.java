@@ -0,0 +1,86 @@
+package com.project.app.elevator;
+
+import com.project.app.util.DoorStatus;
+import com.project.app.util.FloorDirection;
+import com.project.app.util.SecurityType;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Builds elevators for the tests, as BenchmarkElevators does for the benchmarks.
+ */
+public final class TestElevators {
+    // Longest wait for another thread, only reached when a test fails
+    private static final long AWAIT_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    private TestElevators() {
+    }
+
+    /**
+     * Builder for an idle car on its bottom floor with the door closed: floors labelled 1 to numFloors, no security,
+     * default floor 0, no requests, no authorized floors and no authorized users. Tests change what they need.
+     * @param numFloors int number of floors
+     * @return ElevatorImplBuilder ready to build
+     */
+    public static ElevatorImpl.ElevatorImplBuilder car(int numFloors) {
+        ArrayList<String> floors = new ArrayList<>();
+        for (int i = 0; i < numFloors; i++) {
+            floors.add(String.valueOf(i + 1));
+        }
+        return ElevatorImpl.builder()
+                .floors(floors)
+                .securityType(SecurityType.NONE)
+                .defaultFloor(0)
+                .floorsToVisit(new ArrayList<>(Collections.nCopies(numFloors, FloorDirection.NONE)))
+                .authorizedFloors(new ArrayList<>(Collections.nCopies(numFloors, false)))
+                .authorizedUsers(new ArrayList<>())
+                .direction(0)
+                .doorStatus(DoorStatus.CLOSED)
+                .authenticated(false)
+                .currentFloor(0);
+    }
+
+    /**
+     * Waits until a condition made true by another thread holds, such as a car thread of a CarController.
+     * @param description String of what is waited for, reported if it never happens
+     * @param condition BooleanSupplier polled every millisecond
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void await(String description, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + AWAIT_TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                Assertions.fail("Timed out waiting for " + description);
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Waits until a car publishes a snapshot that matches.
+     * @param car ElevatorImpl run by another thread
+     * @param condition Predicate the snapshot must match
+     * @return ElevatorSnapshot the first published snapshot seen that matches
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static ElevatorSnapshot awaitSnapshot(ElevatorImpl car, Predicate<ElevatorSnapshot> condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + AWAIT_TIMEOUT;
+        while (true) {
+            // Read once, the car may publish a newer snapshot at any time
+            ElevatorSnapshot snapshot = car.getSnapshot();
+            if (snapshot != null && condition.test(snapshot)) {
+                return snapshot;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                return Assertions.fail("Timed out waiting for car state, last seen " + snapshot);
+            }
+            Thread.sleep(1);
+        }
+    }
+}
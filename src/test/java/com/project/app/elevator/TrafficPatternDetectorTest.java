@@ -0,0 +1,82 @@
+package com.project.app.elevator;
+
+import com.project.app.util.FloorDirection;
+import com.project.app.util.TrafficPattern;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TrafficPatternDetectorTest {
+    private static final long HALF_LIFE = 60_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final TrafficPatternDetector detector = new TrafficPatternDetector(8, 0, HALF_LIFE, clock::get);
+
+    private ElevatorImpl buildCar() {
+        return TestElevators.car(8).build();
+    }
+
+    @Test
+    @DisplayName("Detector Classifies Peaks And Decays To Idle")
+    void detector_classifiesPeaksAndDecaysToIdle() {
+        Assertions.assertEquals(TrafficPattern.IDLE, detector.getPattern());
+        for (int i = 0; i < 10; i++) {
+            detector.recordCall(0, FloorDirection.UP);
+        }
+        detector.recordCall(3, FloorDirection.DOWN);
+        Assertions.assertEquals(TrafficPattern.UP_PEAK, detector.getPattern());
+
+        // One half-life later the morning calls count half
+        clock.set(HALF_LIFE);
+        Assertions.assertEquals(5, detector.getCallsPerHour(0, FloorDirection.UP) * HALF_LIFE / 3_600_000 / Math.log(2),
+                1e-9);
+        for (int i = 0; i < 30; i++) {
+            detector.recordCall(5 + i % 3, FloorDirection.DOWN);
+        }
+        Assertions.assertEquals(TrafficPattern.DOWN_PEAK, detector.getPattern());
+        for (int i = 0; i < 30; i++) {
+            detector.recordCall(1 + i % 6, i % 2 == 0 ? FloorDirection.UP : FloorDirection.DOWN);
+        }
+        Assertions.assertEquals(TrafficPattern.INTERFLOOR, detector.getPattern());
+
+        // Calls long after rescale the counts without changing the rates
+        clock.set(200 * HALF_LIFE);
+        Assertions.assertEquals(TrafficPattern.IDLE, detector.getPattern());
+        detector.recordCall(0, FloorDirection.UP);
+        Assertions.assertEquals(Math.log(2) / HALF_LIFE * 3_600_000, detector.getCallsPerHour(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Idle Cars Park Where Calls Are Expected")
+    void idleCars_parkWhereCallsAreExpected() {
+        Dispatcher dispatcher = new Dispatcher(List.of(buildCar(), buildCar()), clock::get);
+        dispatcher.enableAdaptiveParking(detector);
+        ElevatorImpl car = dispatcher.getCar(0);
+        Assertions.assertEquals(0, car.getParkingFloor());
+
+        // Evening: calls going down from floors 6 and 7 are recorded through the cars
+        for (int i = 0; i < 20; i++) {
+            dispatcher.callButtonPressed(5 + i % 2, FloorDirection.DOWN);
+            dispatcher.moveAll();
+            dispatcher.moveAll();
+        }
+        Assertions.assertEquals(TrafficPattern.DOWN_PEAK, detector.getPattern());
+        Assertions.assertEquals(5, detector.parkingFloor(0, 2, 0));
+        Assertions.assertEquals(6, detector.parkingFloor(1, 2, 0));
+
+        // With no requests left, the car parks at its share of the busy floors instead of the default floor
+        dispatcher.moveCar(1);
+        Assertions.assertTrue(dispatcher.getCar(1).getFloorsToVisit().hasNoRequests());
+        Assertions.assertEquals(6, dispatcher.getCar(1).getCurrentFloor());
+
+        for (int i = 0; i < 40; i++) {
+            detector.recordCall(0, FloorDirection.UP);
+        }
+        Assertions.assertEquals(0, car.getParkingFloor());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> dispatcher.enableAdaptiveParking(new TrafficPatternDetector(5, 0, HALF_LIFE, clock::get)));
+    }
+}
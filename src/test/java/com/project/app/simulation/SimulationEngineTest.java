@@ -0,0 +1,205 @@
+package com.project.app.simulation;
+
+import com.project.app.elevator.ElevatorImpl;
+import com.project.app.elevator.ElevatorMetrics;
+import com.project.app.elevator.SchedulingPolicy;
+import com.project.app.elevator.TestElevators;
+import com.project.app.util.FloorSet;
+import com.project.app.util.SecurityType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class SimulationEngineTest {
+
+    private static final long HOUR = 3_600_000;
+
+    private List<ElevatorImpl> buildCars(int numCars, SecurityType securityType) {
+        List<ElevatorImpl> cars = new ArrayList<>();
+        for (int i = 0; i < numCars; i++) {
+            cars.add(TestElevators.car(8)
+                    .securityType(securityType)
+                    .authorizedUsers(new ArrayList<>(List.of("Joe")))
+                    .build());
+        }
+        return cars;
+    }
+
+    @Test
+    @DisplayName("Run Delivers Every Rider")
+    void run_deliversEveryRider() {
+        SimulationEngine engine = SimulationEngine.builder()
+                .cars(buildCars(2, SecurityType.NONE))
+                .traffic(RandomTrafficGenerator.interfloor(8, 500, 7))
+                .build();
+        SimulationReport report = engine.run(2 * HOUR);
+
+        Assertions.assertTrue(report.riders() > 0);
+        Assertions.assertEquals(report.riders(), report.delivered());
+        Assertions.assertEquals(0, report.denied());
+        Assertions.assertTrue(report.averageWait() > 0);
+        Assertions.assertTrue(report.maxWait() >= report.p99Wait());
+        Assertions.assertTrue(report.averageTripTime() > report.averageWait());
+        Assertions.assertTrue(report.simulatedTime() >= 2 * HOUR - HOUR / 10);
+    }
+
+    @Test
+    @DisplayName("Run Times Car Metrics In Simulated Time")
+    void run_timesCarMetricsInSimulatedTime() {
+        List<ElevatorImpl> cars = buildCars(1, SecurityType.NONE);
+        Assertions.assertNull(cars.get(0).getMetrics());
+        SimulationReport report = SimulationEngine.builder()
+                .cars(cars)
+                .traffic(RandomTrafficGenerator.interfloor(8, 500, 7))
+                .build()
+                .run(HOUR);
+
+        ElevatorMetrics.Snapshot metrics = cars.get(0).getMetrics().snapshot();
+        Assertions.assertTrue(metrics.stops() > 0);
+        // Milliseconds of simulated time: a call is answered no later than the rider who pressed it boards
+        Assertions.assertTrue(metrics.waitTimes().mean() > 1_000);
+        Assertions.assertTrue(metrics.waitTimes().max() <= report.maxWait());
+    }
+
+    @Test
+    @DisplayName("Run Is Deterministic For A Seed")
+    void run_isDeterministicForSeed() {
+        SimulationReport first = SimulationEngine.builder()
+                .cars(buildCars(1, SecurityType.NONE))
+                .traffic(RandomTrafficGenerator.interfloor(8, 200, 42))
+                .build()
+                .run(HOUR);
+        SimulationReport second = SimulationEngine.builder()
+                .cars(buildCars(1, SecurityType.NONE))
+                .traffic(RandomTrafficGenerator.interfloor(8, 200, 42))
+                .build()
+                .run(HOUR);
+        Assertions.assertEquals(first.delivered(), second.delivered());
+        Assertions.assertEquals(first.averageWait(), second.averageWait());
+        Assertions.assertEquals(first.maxWait(), second.maxWait());
+    }
+
+    @Test
+    @DisplayName("Run Turns Away Riders Without Access")
+    void run_turnsAwayRidersWithoutAccess() {
+        // Unknown badge can't leave the lobby of a GENERAL elevator
+        SimulationReport report = SimulationEngine.builder()
+                .cars(buildCars(1, SecurityType.GENERAL))
+                .traffic(new RandomTrafficGenerator(8, 0, 200, 1, 0, 3))
+                .badge("Larry")
+                .build()
+                .run(HOUR);
+        Assertions.assertEquals(report.riders(), report.denied());
+
+        report = SimulationEngine.builder()
+                .cars(buildCars(1, SecurityType.GENERAL))
+                .traffic(new RandomTrafficGenerator(8, 0, 200, 1, 0, 3))
+                .badge("Joe")
+                .build()
+                .run(HOUR);
+        Assertions.assertEquals(report.riders(), report.delivered());
+    }
+
+    @Test
+    @DisplayName("Roster Riders Only Reach Their Own Floors")
+    void run_limitsRosterRidersToTheirFloors() {
+        List<ElevatorImpl> cars = new ArrayList<>(List.of(TestElevators.car(8)
+                .securityType(SecurityType.SPECIFIED)
+                .authorizedUsers(new ArrayList<>(List.of("Ann", "Bob")))
+                .build()));
+        // Riders badge in as Ann and Bob in turn. Bob may not go above floor 4.
+        Map<String, FloorSet> roster = new LinkedHashMap<>();
+        roster.put("Ann", FloorSet.all(8));
+        roster.put("Bob", FloorSet.of(new boolean[] {true, true, true, true, false, false, false, false}));
+        SimulationReport report = SimulationEngine.builder()
+                .cars(cars)
+                .traffic(new RandomTrafficGenerator(8, 0, 200, 1, 0, 3))
+                .roster(roster)
+                .build()
+                .run(HOUR);
+
+        Assertions.assertTrue(report.denied() > 0);
+        Assertions.assertTrue(report.delivered() > report.riders() / 2);
+        Assertions.assertEquals(report.riders(), report.delivered() + report.denied());
+    }
+
+    @Test
+    @DisplayName("Destination Dispatch Raises Up-Peak Throughput")
+    void destinationDispatch_raisesUpPeakThroughput() {
+        SimulationReport collective = SimulationEngine.builder()
+                .cars(buildCars(2, SecurityType.NONE))
+                .traffic(RandomTrafficGenerator.upPeak(8, 0, 2000, 5))
+                .build()
+                .run(HOUR);
+        SimulationReport destination = SimulationEngine.builder()
+                .cars(buildCars(2, SecurityType.NONE))
+                .traffic(RandomTrafficGenerator.upPeak(8, 0, 2000, 5))
+                .destinationDispatch(true)
+                .build()
+                .run(HOUR);
+
+        Assertions.assertEquals(destination.riders(), destination.delivered());
+        Assertions.assertEquals(collective.riders(), destination.riders());
+        // Riders grouped by destination make fewer stops per trip, so the queue at the lobby clears sooner
+        Assertions.assertTrue(destination.throughputPerHour() > collective.throughputPerHour() * 1.2);
+        Assertions.assertTrue(destination.averageWait() < collective.averageWait());
+    }
+
+    @Test
+    @DisplayName("Adaptive Parking Cuts Average Wait")
+    void adaptiveParking_cutsAverageWait() {
+        // Evening down-peak: idle cars wait upstairs instead of at the lobby
+        SimulationReport lobby = SimulationEngine.builder()
+                .cars(buildCars(2, SecurityType.NONE))
+                .traffic(new RandomTrafficGenerator(8, 0, 150, 0, 1, 5))
+                .build()
+                .run(4 * HOUR);
+        SimulationReport parked = SimulationEngine.builder()
+                .cars(buildCars(2, SecurityType.NONE))
+                .traffic(new RandomTrafficGenerator(8, 0, 150, 0, 1, 5))
+                .adaptiveParking(true)
+                .build()
+                .run(4 * HOUR);
+
+        Assertions.assertEquals(parked.riders(), parked.delivered());
+        Assertions.assertTrue(parked.averageWait() < lobby.averageWait() * 0.8);
+    }
+
+    @Test
+    @DisplayName("Every Scheduling Policy Delivers Every Rider")
+    void schedulingPolicies_deliverEveryRider() {
+        for (String policy : List.of("collective", "look", "scan", "shortest-seek", "eta")) {
+            SimulationReport report = SimulationEngine.builder()
+                    .cars(buildCars(2, SecurityType.NONE))
+                    .traffic(RandomTrafficGenerator.interfloor(8, 500, 5))
+                    .schedulingPolicy(SchedulingPolicy.of(policy))
+                    .build()
+                    .run(2 * HOUR);
+
+            Assertions.assertTrue(report.riders() > 0, policy);
+            Assertions.assertEquals(report.riders(), report.delivered(), policy);
+        }
+    }
+
+    @Test
+    @DisplayName("Destination Dispatch Delivers Every Rider With Every Scheduling Policy")
+    void destinationDispatch_deliversEveryRiderWithEveryPolicy() {
+        for (String policy : List.of("collective", "look", "scan", "shortest-seek", "eta")) {
+            SimulationReport report = SimulationEngine.builder()
+                    .cars(buildCars(2, SecurityType.NONE))
+                    .traffic(RandomTrafficGenerator.interfloor(8, 500, 5))
+                    .destinationDispatch(true)
+                    .schedulingPolicy(SchedulingPolicy.of(policy))
+                    .build()
+                    .run(2 * HOUR);
+
+            Assertions.assertTrue(report.riders() > 0, policy);
+            Assertions.assertEquals(report.riders(), report.delivered(), policy);
+        }
+    }
+}
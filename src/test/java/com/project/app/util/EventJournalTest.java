@@ -0,0 +1,48 @@
+package com.project.app.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class EventJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Journal Rolls Over And Reads Back In Order")
+    void journal_rollsOverAndReadsBackInOrder() throws IOException {
+        // 10 records per segment
+        try (EventJournal journal = new EventJournal(tempDir, EventJournal.RECORD_SIZE * 10)) {
+            for (int i = 0; i < 25; i++) {
+                journal.append(JournalEventType.HALL_CALL_REGISTERED, i, FloorDirection.UP.ordinal());
+            }
+        }
+        try (var files = Files.list(tempDir)) {
+            Assertions.assertEquals(3, files.count());
+        }
+
+        // Reopened journal continues after the last record
+        try (EventJournal journal = new EventJournal(tempDir, EventJournal.RECORD_SIZE * 10)) {
+            Assertions.assertEquals(25, journal.getSequence());
+            journal.append(JournalEventType.EMERGENCY, 3, 0);
+        }
+
+        List<EventJournal.JournalEvent> events = new ArrayList<>();
+        Assertions.assertEquals(26, EventJournal.read(tempDir, events::add));
+        for (int i = 0; i < 25; i++) {
+            Assertions.assertEquals(i, events.get(i).sequence());
+            Assertions.assertEquals(i, events.get(i).floor());
+            Assertions.assertEquals(JournalEventType.HALL_CALL_REGISTERED, events.get(i).type());
+        }
+        Assertions.assertEquals(JournalEventType.EMERGENCY, events.get(25).type());
+        Assertions.assertEquals(25, events.get(25).sequence());
+    }
+}
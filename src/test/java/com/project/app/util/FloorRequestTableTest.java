@@ -0,0 +1,67 @@
+package com.project.app.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+class FloorRequestTableTest {
+
+    @Test
+    @DisplayName("Table Keeps FloorDirection Semantics")
+    void table_keepsFloorDirectionSemantics() {
+        FloorRequestTable table = FloorRequestTable.copyOf(Arrays.asList(
+                FloorDirection.NONE,
+                FloorDirection.UP,
+                FloorDirection.DOWN,
+                FloorDirection.BOTH));
+        Assertions.assertEquals(Arrays.asList(
+                FloorDirection.NONE,
+                FloorDirection.UP,
+                FloorDirection.DOWN,
+                FloorDirection.BOTH), table);
+        for (int i = 0; i < table.size(); i++) {
+            Assertions.assertEquals(table.get(i).shouldStop(1), table.shouldStop(i, 1));
+            Assertions.assertEquals(table.get(i).shouldStop(-1), table.shouldStop(i, -1));
+        }
+
+        // Visiting BOTH going up leaves DOWN, visiting UP going up leaves NONE
+        table.visitFloor(3, 1);
+        table.visitFloor(1, 1);
+        Assertions.assertEquals(FloorDirection.DOWN, table.get(3));
+        Assertions.assertEquals(FloorDirection.NONE, table.get(1));
+
+        // Adding a request keeps the other direction and reports repeats
+        Assertions.assertTrue(table.addRequest(3, 1));
+        Assertions.assertFalse(table.addRequest(3, 1));
+        Assertions.assertEquals(FloorDirection.BOTH, table.get(3));
+
+        table.clearRequests();
+        Assertions.assertTrue(table.hasNoRequests());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> table.get(4));
+    }
+
+    @Test
+    @DisplayName("Next Requested Floor Queries Cross Word Boundaries")
+    void nextRequestedFloor_crossesWordBoundaries() {
+        FloorRequestTable table = new FloorRequestTable(200);
+        table.set(5, FloorDirection.UP);
+        table.set(70, FloorDirection.BOTH);
+        table.set(190, FloorDirection.DOWN);
+
+        Assertions.assertEquals(5, table.nextAtOrAbove(0, 1));
+        Assertions.assertEquals(70, table.nextAtOrAbove(6, 1));
+        Assertions.assertEquals(-1, table.nextAtOrAbove(71, 1));
+        Assertions.assertEquals(190, table.nextAtOrAbove(71, -1));
+        Assertions.assertEquals(190, table.nextAtOrBelow(199, -1));
+        Assertions.assertEquals(70, table.nextAtOrBelow(189, -1));
+        Assertions.assertEquals(-1, table.nextAtOrBelow(69, -1));
+        Assertions.assertEquals(5, table.nextAtOrBelow(69, 1));
+
+        Assertions.assertEquals(5, table.lowestRequest());
+        Assertions.assertEquals(190, table.highestRequest());
+        Assertions.assertEquals(3, table.countRequests(0, 199));
+        Assertions.assertEquals(1, table.countRequests(6, 70));
+    }
+}
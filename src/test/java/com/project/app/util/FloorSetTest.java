@@ -0,0 +1,111 @@
+package com.project.app.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.app.elevator.TestElevators;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class FloorSetTest {
+
+    @Test
+    @DisplayName("FloorSet Matches Boolean List")
+    void floorSet_matchesBooleanList() {
+        ArrayList<Boolean> floors = new ArrayList<>(Collections.nCopies(130, false));
+        floors.set(1, true);
+        floors.set(64, true);
+        floors.set(129, true);
+        FloorSet floorSet = FloorSet.of(floors);
+
+        Assertions.assertEquals(floors, floorSet);
+        Assertions.assertEquals(floorSet, floors);
+        Assertions.assertEquals(floors.hashCode(), floorSet.hashCode());
+        Assertions.assertTrue(floorSet.allows(64));
+        Assertions.assertFalse(floorSet.allows(63));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> floorSet.allows(130));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> floorSet.set(0, true));
+
+        Assertions.assertEquals(Collections.nCopies(130, true), FloorSet.all(130));
+        Assertions.assertEquals(Collections.nCopies(130, false), FloorSet.none(130));
+    }
+
+    @Test
+    @DisplayName("Users With Same Access Share One FloorSet")
+    void floorSet_isInterned() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        FloorSet fromJson = objectMapper.readValue("[true, false, true, true]", FloorSet.class);
+        FloorSet fromList = FloorSet.of(Arrays.asList(true, false, true, true));
+
+        Assertions.assertSame(fromList, fromJson);
+        Assertions.assertSame(FloorSet.all(4), FloorSet.of(Arrays.asList(true, true, true, true)));
+        Assertions.assertSame(fromList, FloorSet.of(fromList));
+    }
+
+    @Test
+    @DisplayName("Unused FloorSets Are Dropped From The Intern Table")
+    void floorSet_internTableIsWeak() throws Exception {
+        ArrayList<Boolean> floors = new ArrayList<>(Collections.nCopies(200, false));
+        floors.set(177, true);
+        WeakReference<FloorSet> interned = new WeakReference<>(FloorSet.of(floors));
+
+        TestElevators.await("unused FloorSet to be collected", () -> {
+            System.gc();
+            return interned.get() == null;
+        });
+        Assertions.assertEquals(floors, FloorSet.of(floors));
+
+        // Entries of collected FloorSets are removed from the table by later interning
+        int before = FloorSet.internedCount();
+        for (int i = 0; i < 1000; i++) {
+            boolean[] unused = new boolean[1000];
+            unused[i] = true;
+            FloorSet.of(unused);
+        }
+        TestElevators.await("entries of unused FloorSets to be removed", () -> {
+            System.gc();
+            FloorSet.of(floors);
+            return FloorSet.internedCount() < before + 1000;
+        });
+    }
+
+    @Test
+    @DisplayName("Concurrent Interning Shares One FloorSet")
+    void floorSet_internsConcurrently() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<FloorSet[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                FloorSet[] sets = new FloorSet[500];
+                for (int i = 0; i < sets.length; i++) {
+                    boolean[] floors = new boolean[500];
+                    floors[i] = true;
+                    sets[i] = FloorSet.of(floors);
+                }
+                return sets;
+            }));
+        }
+        start.countDown();
+        FloorSet[] first = futures.get(0).get(30, TimeUnit.SECONDS);
+        for (Future<FloorSet[]> future : futures) {
+            FloorSet[] sets = future.get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < sets.length; i++) {
+                Assertions.assertSame(first[i], sets[i]);
+            }
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.app.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class MaintenanceLogReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    // One line per second starting at 2024-01-01 00:00:00, every 10th line followed by a line without timestamp
+    private List<String> logLines(int first, int count) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+        List<String> lines = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            lines.add(String.format("%1$tF %1$tT [main] INFO  ElevatorImpl - line %2$d", start.plusSeconds(i), i));
+            if (i % 10 == 9) {
+                lines.add("    at detail of line " + i);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    @DisplayName("Tail And Page Follow A Growing Log")
+    void tailAndPage_followGrowingLog() throws IOException {
+        Path log = tempDir.resolve("app.log");
+        List<String> lines = logLines(0, 500);
+        Files.write(log, lines);
+        MaintenanceLogReader reader = new MaintenanceLogReader(log, 16);
+
+        Assertions.assertEquals(lines.size(), reader.getLineCount());
+        Assertions.assertEquals(lines.subList(lines.size() - 5, lines.size()), reader.tail(5));
+        Assertions.assertEquals(lines.subList(100, 140), reader.page(100, 40));
+        Assertions.assertTrue(reader.page(lines.size(), 10).isEmpty());
+
+        // Appended lines are indexed, a partial last line is not returned until it is complete
+        List<String> more = logLines(500, 20);
+        Files.write(log, more, StandardOpenOption.APPEND);
+        Files.writeString(log, "partial", StandardOpenOption.APPEND);
+        Assertions.assertEquals(more.subList(more.size() - 3, more.size()), reader.tail(3));
+
+        // Cleared log is re-indexed from the start
+        Files.write(log, logLines(0, 3));
+        Assertions.assertEquals(logLines(0, 3), reader.tail(10));
+    }
+
+    @Test
+    @DisplayName("Range Returns Lines Between Times")
+    void range_returnsLinesBetweenTimes() throws IOException {
+        Path log = tempDir.resolve("app.log");
+        Files.write(log, logLines(0, 500));
+        MaintenanceLogReader reader = new MaintenanceLogReader(log, 16);
+
+        List<String> lines = reader.range(
+                LocalDateTime.of(2024, 1, 1, 0, 1, 40),
+                LocalDateTime.of(2024, 1, 1, 0, 1, 49),
+                100);
+        // Lines 100 to 109 plus the untimed line after line 109
+        Assertions.assertEquals(11, lines.size());
+        Assertions.assertTrue(lines.get(0).endsWith("line 100"));
+        Assertions.assertEquals("    at detail of line 109", lines.get(10));
+
+        Assertions.assertEquals(5, reader.range(
+                LocalDateTime.of(2024, 1, 1, 0, 0, 0),
+                LocalDateTime.of(2024, 1, 2, 0, 0, 0),
+                5).size());
+        Assertions.assertTrue(new MaintenanceLogReader(tempDir.resolve("missing.log")).tail(5).isEmpty());
+    }
+}